@@ -0,0 +1,84 @@
+package com.gatekeeperx.ruleflow.benchmarks;
+
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Macro benchmark over the AML onboarding workflow from the examples: nested properties,
+ * custom function calls with member access and aggregations, and compound variables.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmlOnboardingBenchmark {
+    static final String WORKFLOW = """
+        workflow 'test_aml_onboarding'
+            ruleset 'work_info'
+                'agrario'     customer.workInfo.code = 1010 SET $score = 0.45 * 10 continue
+                'informatico' customer.workInfo.code = 230  SET $score += 0.45 * 5 continue
+                'desempleado' customer.workInfo.code = 2300  SET $score = $score + 0.45 * 5 continue
+            ruleset 'sanctions'
+                'hit'   screening(documentNumber, customer.firstName + ' ' + customer.lastName).matchCount > 5
+                        set $score = 0.55 * 15
+                        action('block') continue
+                'hit_list' screening(documentNumber, customer.firstName + ' ' + customer.lastName).matches.contains { it.matchPriority > 3 }
+                        set $score = 0.55 * 15
+                        action('block') continue
+                'hit_2' screening(documentNumber, customer.firstName + ' ' + customer.lastName).matchCount > 0
+                        set $score = 0.45 * 15
+                        action('block') continue
+            ruleset 'risk_rating'
+                'low'    $score > 3  AND $score < 15 return low
+                'medium' $score >= 15 AND $score < 30 return medium
+                'high'   $score >= 30 return high
+            default low
+        end
+        """;
+
+    private Workflow workflow;
+    private Map<String, Object> request;
+    private Map<String, RuleflowFunction> functions;
+
+    @Setup
+    public void setUp() {
+        workflow = new Workflow(WORKFLOW);
+        request = Map.of(
+            "documentNumber", "DOC123",
+            "customer", Map.of(
+                "firstName", "Juan",
+                "lastName", "Garcia",
+                "workInfo", Map.of("code", 1010)));
+        RuleflowFunction screening = args -> {
+            Map<String, Object> match = new HashMap<>();
+            match.put("matchPriority", 2);
+            Map<String, Object> result = new HashMap<>();
+            result.put("matchCount", 1);
+            result.put("matches", List.of(match));
+            return result;
+        };
+        functions = Map.of("screening", screening);
+    }
+
+    @Benchmark
+    public WorkflowResult evaluate() {
+        return workflow.evaluate(request, Map.of(), functions);
+    }
+}
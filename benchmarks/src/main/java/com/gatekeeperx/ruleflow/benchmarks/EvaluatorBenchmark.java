@@ -0,0 +1,215 @@
+package com.gatekeeperx.ruleflow.benchmarks;
+
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One benchmark per evaluator family. Each workflow is shaped so its rules are evaluated
+ * without matching early, which keeps the measured work on the evaluator itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluatorBenchmark {
+    static final int STORED_LIST_SIZE = 10_000;
+    static final int REQUEST_LIST_SIZE = 100;
+
+    private Workflow comparisons;
+    private Workflow listIn;
+    private Workflow listContains;
+    private Workflow listStartsWith;
+    private Workflow evalInList;
+    private Workflow aggregations;
+    private Workflow numericAggregations;
+    private Workflow regex;
+    private Workflow stringSimilarity;
+    private Workflow geo;
+    private Workflow dates;
+    private StoredListIndex lists;
+    // The same lists as passed to the Map overloads, which scan them on every call
+    private Map<String, List<?>> listMap;
+    private Map<String, Object> request;
+
+    @Setup
+    public void setUp() {
+        comparisons = new Workflow(single("""
+            'amount' amount > 1000 and country = 'US' return block
+                    'score' score >= 80 or (amount < 5 and country <> 'AR') return review
+                    'name' name == 'JANE DOE' return review
+                    'code' code = '12345' return review"""));
+        listIn = new Workflow(single("'in' user_id in list('blocked_users') return block"));
+        listContains = new Workflow(single("'contains' description contains list('keywords') return review"));
+        listStartsWith = new Workflow(single("'starts_with' phone starts_with list('prefixes') return review"));
+        evalInList = new Workflow(single(
+            "'eval' evalInList('accounts', elem.id = account_id and elem.status = 'blocked') return block"));
+        aggregations = new Workflow(single("""
+            'count' transactions.count { it.amount > 900 } > 50 return block
+                    'any' transactions.any { it.country = 'KP' } return block
+                    'all' transactions.all { it.amount > 999 } return block
+                    'average' transactions.average { it.flagged = true } > 0.9 return review"""));
+        numericAggregations = new Workflow(single("""
+            'sum' transactions.sum { it.amount } > 10000000 return block
+                    'spread' transactions.max { it.amount } - transactions.min { it.amount } > 100000 return review
+                    'avg' transactions.avg { it.amount } > 100000 return review
+                    'p95' transactions.percentile { it.amount, 95 } > 100000 return review"""));
+        regex = new Workflow(single("""
+            'phone' regex_strip(phone, '[^0-9]') = '0000000000' return review
+                    'email' regex_strip(email, '@.*$') = 'nobody' return review"""));
+        stringSimilarity = new Workflow(single("""
+            'distance' string_distance(name, 'JOHN SMITH') < 3 return review
+                    'partial' partial_ratio(name, 'JOHN SMITH') > 95 return review
+                    'token_sort' token_sort_ratio(name, 'SMITH JOHN') > 95 return review
+                    'token_set' token_set_ratio(name, 'JOHN A SMITH') > 95 return review"""));
+        geo = new Workflow(single("""
+            'distance' distance(lat, lon, -33.45, -70.66) < 10 return review
+                    'geohash' geohash_encode(lat, lon, 8) = '9q8yyk8y' return review"""));
+        dates = new Workflow(single("""
+            'diff' date_diff(start_date, end_date, day) > 400 return review
+                    'dow' day_of_week(start_date) = 'SUNDAY' return review
+                    'add' date_add(start_date, 3, day) = datetime('2030-01-01') return review"""));
+
+        List<String> blockedUsers = new ArrayList<>();
+        List<String> keywords = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (int i = 0; i < STORED_LIST_SIZE; i++) {
+            blockedUsers.add("user_" + i);
+            keywords.add("keyword" + i);
+            prefixes.add("+99" + i);
+            if (i < 1_000) {
+                accounts.add(Map.of("id", "acc_" + i, "status", i % 2 == 0 ? "active" : "blocked"));
+            }
+        }
+        listMap = Map.of(
+            "blocked_users", blockedUsers,
+            "keywords", keywords,
+            "prefixes", prefixes,
+            "accounts", accounts);
+        lists = StoredListIndex.of(listMap);
+
+        List<Map<String, Object>> transactions = new ArrayList<>();
+        for (int i = 0; i < REQUEST_LIST_SIZE; i++) {
+            transactions.add(Map.of("amount", i * 10, "country", "AR", "flagged", i % 3 == 0));
+        }
+        request = new HashMap<>();
+        request.put("amount", 750);
+        request.put("score", 40);
+        request.put("country", "AR");
+        request.put("name", "Jane Smith");
+        request.put("code", "54321");
+        request.put("user_id", "user_missing");
+        request.put("description", "a perfectly ordinary payment description for groceries");
+        request.put("phone", "+54 (11) 5555-0000");
+        request.put("email", "jane.smith@example.com");
+        request.put("account_id", "acc_missing");
+        request.put("transactions", transactions);
+        request.put("lat", -34.60);
+        request.put("lon", -58.38);
+        request.put("start_date", "2024-06-01");
+        request.put("end_date", "2024-06-10");
+    }
+
+    @Benchmark
+    public WorkflowResult comparisons() {
+        return comparisons.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult listIn() {
+        return listIn.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult listInMap() {
+        return listIn.evaluate(request, listMap);
+    }
+
+    @Benchmark
+    public WorkflowResult listContains() {
+        return listContains.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult listContainsMap() {
+        return listContains.evaluate(request, listMap);
+    }
+
+    @Benchmark
+    public WorkflowResult listStartsWith() {
+        return listStartsWith.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult listStartsWithMap() {
+        return listStartsWith.evaluate(request, listMap);
+    }
+
+    @Benchmark
+    public WorkflowResult evalInList() {
+        return evalInList.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult evalInListMap() {
+        return evalInList.evaluate(request, listMap);
+    }
+
+    @Benchmark
+    public WorkflowResult aggregations() {
+        return aggregations.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult numericAggregations() {
+        return numericAggregations.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult regexStrip() {
+        return regex.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult stringSimilarity() {
+        return stringSimilarity.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult geo() {
+        return geo.evaluate(request, lists);
+    }
+
+    @Benchmark
+    public WorkflowResult dates() {
+        return dates.evaluate(request, lists);
+    }
+
+    private static String single(String rules) {
+        return """
+            workflow 'benchmark'
+                ruleset 'rules'
+                    %s
+                default allow
+            end
+            """.formatted(rules);
+    }
+}
@@ -0,0 +1,96 @@
+package com.gatekeeperx.ruleflow.benchmarks;
+
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Workflow construction (parse and compile) and end-to-end evaluation of a small and a large workflow.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowBenchmark {
+    static final String SMALL_WORKFLOW = """
+        workflow 'small'
+            ruleset 'fraud'
+                'high_amount' amount > 5000 and country <> 'AR' return block
+                'new_user' account_age < 2 and amount > 500 return review
+                'trusted' user_id in 'u1', 'u2', 'u3' return allow
+            default allow
+        end
+        """;
+
+    static final int LARGE_RULESETS = 20;
+    static final int LARGE_RULES = 25;
+
+    private String largeSource;
+    private Workflow small;
+    private Workflow large;
+    private Map<String, Object> request;
+
+    @Setup
+    public void setUp() {
+        largeSource = largeWorkflow();
+        small = new Workflow(SMALL_WORKFLOW);
+        large = new Workflow(largeSource);
+        request = new HashMap<>();
+        request.put("amount", 750);
+        request.put("country", "AR");
+        request.put("account_age", 10);
+        request.put("user_id", "u9");
+        for (int i = 0; i < LARGE_RULES; i++) {
+            request.put("field_" + i, i * 10);
+        }
+    }
+
+    @Benchmark
+    public Workflow parseSmall() {
+        return new Workflow(SMALL_WORKFLOW);
+    }
+
+    @Benchmark
+    public Workflow parseLarge() {
+        return new Workflow(largeSource);
+    }
+
+    @Benchmark
+    public WorkflowResult evaluateSmall() {
+        return small.evaluate(request);
+    }
+
+    @Benchmark
+    public WorkflowResult evaluateLarge() {
+        return large.evaluate(request);
+    }
+
+    /**
+     * A workflow where no rule matches, so every ruleset and rule is evaluated.
+     */
+    static String largeWorkflow() {
+        StringBuilder source = new StringBuilder("workflow 'large'\n");
+        for (int set = 0; set < LARGE_RULESETS; set++) {
+            source.append("    ruleset 'set_").append(set).append("'\n");
+            for (int rule = 0; rule < LARGE_RULES; rule++) {
+                source.append("        'rule_").append(set).append('_').append(rule).append("' field_")
+                    .append(rule).append(" > ").append(10_000 + set).append(" and country = 'US' return block\n");
+            }
+        }
+        return source.append("    default allow\nend\n").toString();
+    }
+}
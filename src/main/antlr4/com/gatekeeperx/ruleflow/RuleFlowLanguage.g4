@@ -35,12 +35,12 @@ evaluation_mode: K_EVALUATION_MODE (K_MULTI_MATCH | K_SINGLE_MATCH);
 
 return_result: (state | validProperty| validValue | K_EXPR L_PAREN expr R_PAREN);
 
-state: ID;
+state: identifier;
 
 actions: (K_WITH|K_AND)? action (K_AND action)*?;
 
 action: K_ACTION '(' param_value=string_literal (COMMA action_params)? ')'
-      | action_id=ID ('(' action_params ')')?;
+      | action_id=identifier ('(' action_params ')')?;
 
 action_params: '{' param_pairs '}';
 
@@ -48,13 +48,15 @@ param_pairs: param_pair (COMMA param_pair)*;
 
 param_pair: field_name = string_literal ':' field_value = actionParamValue;
 
-funcCallArg: argName=ID K_COLON argValue=expr   // named: name: expr
+funcCallArg: argName=identifier K_COLON argValue=expr   // named: name: expr
            | argValue=expr                        // positional
            ;
 
 expr: L_PAREN expr R_PAREN                                                      #parenthesis
     | VARIABLE                                                                  #variableRef
-    | base=expr DOT field=ID                                                    #memberAccess
+    | base=expr DOT field=identifier                                            #memberAccess
+    | value=expr DOT op=(K_SUM | K_MIN | K_MAX | K_AVG | K_PERCENTILE)
+      (L_BRACE selector=expr (COMMA percent=expr)? R_BRACE | L_PAREN percent=expr? R_PAREN) #numericAggregation
     | left=expr op=(MULTIPLY | DIVIDE | MODULO) right=expr                      #mathMul
     | left=expr op=(ADD | MINUS) right=expr                                     #mathAdd
     | left=expr op=(LT | LT_EQ | GT | GT_EQ | EQ | EQ_IC | NOT_EQ) right=expr   #comparator
@@ -67,7 +69,7 @@ expr: L_PAREN expr R_PAREN
     | op = REGEX_STRIP L_PAREN value = validProperty COMMA regex = SQUOTA_STRING R_PAREN                       #regexlike
     | op=ABS L_PAREN left=expr R_PAREN                                          #unary
     | op=K_EVAL_IN_LIST L_PAREN listName=string_literal COMMA predicate=expr R_PAREN   #evalInList
-    | ID L_PAREN (funcCallArg (COMMA funcCallArg)*)? R_PAREN                    #customFunctionCall
+    | functionName=identifier L_PAREN (funcCallArg (COMMA funcCallArg)*)? R_PAREN #customFunctionCall
     | left=expr op=K_AND right=expr                                             #binaryAnd
     | left=expr op=K_OR right=expr                                              #binaryOr
     | dateParse #dateParseExpr
@@ -117,8 +119,13 @@ dateValue: string_literal | validProperty | K_NOW L_PAREN R_PAREN;
 
 timeUnit: DAY | HOUR | MINUTE;
 
-validProperty: root=DOT? property=(ID | K_ELEM)
-             | root=DOT? nestedProperty=(ID | K_ELEM) (DOT (ID | K_ELEM))+;
+validProperty: root=DOT? property=propertyName
+             | root=DOT? nestedProperty=propertyName (DOT propertyName)+;
+
+propertyName: identifier | K_ELEM;
+
+// Numeric aggregation names stay valid identifiers, as they were before they became keywords
+identifier: ID | K_SUM | K_MIN | K_MAX | K_AVG | K_PERCENTILE;
 
 DOT: '.';
 COMMA: ',';
@@ -178,6 +185,11 @@ K_ALL: A L L;
 K_COUNT: C O U N T;
 K_AVERAGE: A V E R A G E;
 K_DISTINCT: D I S T I N C T;
+K_SUM: S U M;
+K_MIN: M I N;
+K_MAX: M A X;
+K_AVG: A V G;
+K_PERCENTILE: P E R C E N T I L E;
 K_NULL: N U L L;
 DAY_OF_WEEK: D A Y '_' O F '_' W E E K;
 K_EXPR : E X P R;
@@ -1,10 +1,19 @@
 package com.gatekeeperx.ruleflow;
 
+import com.gatekeeperx.ruleflow.columnar.ColumnBatch;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow;
+import com.gatekeeperx.ruleflow.compiler.WorkflowCompiler;
 import com.gatekeeperx.ruleflow.listeners.ErrorListener;
-import com.gatekeeperx.ruleflow.visitors.GrammarVisitor;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.metrics.EvaluationListener;
 import com.gatekeeperx.ruleflow.visitors.RulesetVisitor;
 import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.CharStream;
@@ -12,9 +21,20 @@ import org.antlr.v4.runtime.CharStream;
 import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
 import java.util.Map;
 
+/**
+ * A parsed and compiled workflow.
+ * <p>
+ * Instances are immutable once constructed and safe to share across threads: every
+ * {@code evaluate} call builds its own visitor, variables, warnings and function call cache,
+ * and the compiled expressions never read or mutate the parse tree. A single instance may
+ * therefore serve any number of concurrent requests. Stored lists passed through a
+ * {@link StoredListIndex} may be shared as well; their indexes are built once and published
+ * safely. Custom functions are invoked concurrently and must be thread-safe themselves.
+ */
 public class Workflow {
 
-    private final com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ParseContext tree;
+    private final CompiledWorkflow compiled;
+    private final EvaluationListener listener;
 
     public Workflow(String workflow) {
         CharStream input = CharStreams.fromString(workflow);
@@ -22,24 +42,156 @@ public class Workflow {
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         com.gatekeeperx.ruleflow.RuleFlowLanguageParser parser = new com.gatekeeperx.ruleflow.RuleFlowLanguageParser(tokens);
         parser.addErrorListener(new ErrorListener());
-        this.tree = parser.parse();
+        // The parse tree is not retained once compiled
+        this.compiled = new WorkflowCompiler().compile(parser.parse());
+        this.listener = null;
+    }
+
+    private Workflow(CompiledWorkflow compiled, EvaluationListener listener) {
+        this.compiled = compiled;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a workflow sharing this one's compiled form that reports every ruleset condition
+     * and rule evaluation to {@code listener}, or none when it is {@code null}. The listener is
+     * called from every evaluating thread and must be thread-safe.
+     */
+    public Workflow withListener(EvaluationListener listener) {
+        return new Workflow(compiled, listener);
     }
 
     public WorkflowResult evaluate(Map<String, Object> request, Map<String, List<?>> list) {
-        return new RulesetVisitor(request, list).visit(tree);
+        return new RulesetVisitor(request, StoredListIndex.unindexed(list), Map.of(), listener).visitWorkflow(compiled);
     }
 
     public WorkflowResult evaluate(Map<String, Object> request) {
-        return new RulesetVisitor(request, Map.of()).visit(tree);
+        return new RulesetVisitor(request, StoredListIndex.empty(), Map.of(), listener).visitWorkflow(compiled);
     }
 
     public WorkflowResult evaluate(Map<String, Object> request,
                                    Map<String, List<?>> lists,
                                    Map<String, RuleflowFunction> functions) {
-        return new RulesetVisitor(request, lists, functions).visit(tree);
+        return new RulesetVisitor(request, StoredListIndex.unindexed(lists), functions, listener).visitWorkflow(compiled);
+    }
+
+    /**
+     * Evaluates the workflow against stored lists registered once in a {@link StoredListIndex},
+     * so list lookups reuse the indexes built by previous evaluations. Lists passed as a plain
+     * map are scanned instead, as an index built for a single call would not pay for itself.
+     */
+    public WorkflowResult evaluate(Map<String, Object> request, StoredListIndex lists) {
+        return new RulesetVisitor(request, lists, Map.of(), listener).visitWorkflow(compiled);
+    }
+
+    public WorkflowResult evaluate(Map<String, Object> request,
+                                   StoredListIndex lists,
+                                   Map<String, RuleflowFunction> functions) {
+        return new RulesetVisitor(request, lists, functions, listener).visitWorkflow(compiled);
+    }
+
+    /**
+     * Evaluates a batch of requests and returns their results in input order. Lists are indexed
+     * once for the whole batch and the per-request evaluation state is reused between requests.
+     */
+    public List<WorkflowResult> evaluateBatch(List<Map<String, Object>> requests) {
+        return evaluateBatch(requests, StoredListIndex.empty(), Map.of());
+    }
+
+    public List<WorkflowResult> evaluateBatch(List<Map<String, Object>> requests, Map<String, List<?>> lists) {
+        return evaluateBatch(requests, StoredListIndex.unindexed(lists), Map.of());
+    }
+
+    public List<WorkflowResult> evaluateBatch(List<Map<String, Object>> requests,
+                                              Map<String, List<?>> lists,
+                                              Map<String, RuleflowFunction> functions) {
+        return evaluateBatch(requests, StoredListIndex.unindexed(lists), functions);
+    }
+
+    public List<WorkflowResult> evaluateBatch(List<Map<String, Object>> requests, StoredListIndex lists) {
+        return evaluateBatch(requests, lists, Map.of());
+    }
+
+    public List<WorkflowResult> evaluateBatch(List<Map<String, Object>> requests,
+                                              StoredListIndex lists,
+                                              Map<String, RuleflowFunction> functions) {
+        return new RulesetVisitor(Map.of(), lists, functions, listener).visitBatch(compiled, requests);
+    }
+
+    /**
+     * Evaluates a batch of requests on the given executor, split into chunks of at most
+     * {@code chunkSize} requests. Each chunk runs as one {@link #evaluateBatch} on its own
+     * evaluation state; results are written to their request's position, so the returned list
+     * is in input order and identical to a sequential evaluation.
+     */
+    public List<WorkflowResult> evaluateParallel(List<Map<String, Object>> requests,
+                                                 Executor executor,
+                                                 int chunkSize) {
+        return evaluateParallel(requests, StoredListIndex.empty(), Map.of(), executor, chunkSize);
+    }
+
+    public List<WorkflowResult> evaluateParallel(List<Map<String, Object>> requests,
+                                                 Map<String, List<?>> lists,
+                                                 Map<String, RuleflowFunction> functions,
+                                                 Executor executor,
+                                                 int chunkSize) {
+        return evaluateParallel(requests, StoredListIndex.unindexed(lists), functions, executor, chunkSize);
+    }
+
+    public List<WorkflowResult> evaluateParallel(List<Map<String, Object>> requests,
+                                                 StoredListIndex lists,
+                                                 Map<String, RuleflowFunction> functions,
+                                                 Executor executor,
+                                                 int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        WorkflowResult[] results = new WorkflowResult[requests.size()];
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int start = from;
+            List<Map<String, Object>> chunk = requests.subList(start, Math.min(start + chunkSize, requests.size()));
+            chunks.add(CompletableFuture.runAsync(() -> {
+                List<WorkflowResult> chunkResults = evaluateBatch(chunk, lists, functions);
+                for (int i = 0; i < chunkResults.size(); i++) {
+                    results[start + i] = chunkResults.get(i);
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Evaluates every row of a column batch and returns one result per row, in row order.
+     * Comparisons of a column with a literal, literal {@code in} lists and their
+     * {@code and}/{@code or} combinations are evaluated a column at a time; results are the
+     * same as evaluating each row as a request map.
+     */
+    public List<WorkflowResult> evaluateColumns(ColumnBatch batch) {
+        return evaluateColumns(batch, StoredListIndex.empty(), Map.of());
+    }
+
+    public List<WorkflowResult> evaluateColumns(ColumnBatch batch,
+                                                Map<String, List<?>> lists,
+                                                Map<String, RuleflowFunction> functions) {
+        return evaluateColumns(batch, StoredListIndex.unindexed(lists), functions);
+    }
+
+    public List<WorkflowResult> evaluateColumns(ColumnBatch batch,
+                                                StoredListIndex lists,
+                                                Map<String, RuleflowFunction> functions) {
+        return new RulesetVisitor(Map.of(), lists, functions, listener).visitColumns(compiled, batch);
     }
 
     public String validateAndGetWorkflowName() {
-        return new GrammarVisitor().visit(tree);
+        return compiled.getName();
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A record or JavaBean read as a request, without converting it into a map first. Properties
+ * are read through getters generated once per class; nested beans and lists of beans are
+ * viewed the same way as they are reached. Like a map built from the bean, {@code null}
+ * properties are absent keys.
+ */
+public final class BeanRow extends AbstractMap<String, Object> {
+    private final Object bean;
+    private final BeanType type;
+
+    BeanRow(Object bean, BeanType type) {
+        this.bean = bean;
+        this.type = type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> of(Object bean) {
+        if (bean instanceof Map) {
+            return (Map<String, Object>) bean;
+        }
+        if (!BeanType.isBean(bean.getClass())) {
+            throw new IllegalArgumentException("Not a record or bean: " + bean.getClass().getName());
+        }
+        return new BeanRow(bean, BeanType.of(bean.getClass()));
+    }
+
+    public Object getBean() {
+        return bean;
+    }
+
+    BeanType getType() {
+        return type;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Function<Object, Object> getter = type.getter(key);
+        return getter != null ? BeanType.adapt(getter.apply(bean)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return type.names().stream()
+                    .map(name -> (Entry<String, Object>) new SimpleImmutableEntry<>(name, get(name)))
+                    .filter(entry -> entry.getValue() != null)
+                    .iterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (String name : type.names()) {
+                    if (get(name) != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+}
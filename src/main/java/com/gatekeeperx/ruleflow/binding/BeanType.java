@@ -0,0 +1,196 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.time.temporal.TemporalAccessor;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The readable properties of a record or JavaBean class, as getters generated once per class.
+ * Record components, {@code getX()}/{@code isX()} methods and public fields become properties;
+ * getters are spun through {@link LambdaMetafactory} and fall back to a plain
+ * {@link MethodHandle} where a lambda cannot be generated.
+ */
+final class BeanType {
+    private static final ClassValue<BeanType> TYPES = new ClassValue<>() {
+        @Override
+        protected BeanType computeValue(Class<?> type) {
+            return new BeanType(type);
+        }
+    };
+
+    private final Map<String, Function<Object, Object>> getters;
+
+    private BeanType(Class<?> type) {
+        MethodHandles.Lookup lookup = lookupFor(type);
+        Map<String, Function<Object, Object>> found = new LinkedHashMap<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                addGetter(found, lookup, type, component.getName(), component.getAccessor());
+            }
+        } else {
+            for (Method method : type.getMethods()) {
+                String name = propertyName(method);
+                if (name != null) {
+                    addGetter(found, lookup, type, name, method);
+                }
+            }
+            for (Field field : type.getFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !found.containsKey(field.getName())) {
+                    try {
+                        found.put(field.getName(), handleGetter(lookup.unreflectGetter(field)));
+                    } catch (IllegalAccessException e) {
+                        // Not readable from here; the property is treated as absent
+                    }
+                }
+            }
+        }
+        this.getters = Collections.unmodifiableMap(found);
+    }
+
+    static BeanType of(Class<?> type) {
+        return TYPES.get(type);
+    }
+
+    /**
+     * Returns the getter of {@code name}, or {@code null} when the class has no such property.
+     */
+    Function<Object, Object> getter(Object name) {
+        return getters.get(name);
+    }
+
+    Set<String> names() {
+        return getters.keySet();
+    }
+
+    /**
+     * Returns {@code value} as the evaluator expects to navigate it: beans become {@link BeanRow}s
+     * and lists of beans are viewed element by element as such. Anything else is returned as is.
+     */
+    static Object adapt(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (isBean(value.getClass())) {
+            return new BeanRow(value, of(value.getClass()));
+        }
+        if (value instanceof List<?> && value instanceof RandomAccess) {
+            List<?> list = (List<?>) value;
+            if (!list.isEmpty() && list.get(0) != null && isBean(list.get(0).getClass())) {
+                return new AbstractList<Object>() {
+                    @Override
+                    public Object get(int index) {
+                        return adapt(list.get(index));
+                    }
+
+                    @Override
+                    public int size() {
+                        return list.size();
+                    }
+                };
+            }
+        }
+        return value;
+    }
+
+    static boolean isBean(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum()
+            || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+            || CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+            || Boolean.class == type || Character.class == type
+            || TemporalAccessor.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type)) {
+            return false;
+        }
+        return type.isRecord() || !type.getName().startsWith("java.");
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    private static String propertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+            || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    // JavaBeans rules: getURL stays URL, getName becomes name
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static void addGetter(Map<String, Function<Object, Object>> getters, MethodHandles.Lookup lookup,
+                                  Class<?> type, String name, Method method) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            return;
+        }
+        getters.put(name, lambdaGetter(lookup, type, handle));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambdaGetter(MethodHandles.Lookup lookup, Class<?> type,
+                                                         MethodHandle handle) {
+        try {
+            Class<?> returnType = handle.type().returnType();
+            CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                MethodType.methodType(returnType.isPrimitive() ? MethodType.methodType(returnType).wrap().returnType()
+                    : returnType, type));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return handleGetter(handle);
+        }
+    }
+
+    private static Function<Object, Object> handleGetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> {
+            try {
+                return generic.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One segment of a property path, resolved when the workflow is compiled. The name is interned
+ * and, for {@link SlotRow} and {@link BeanRow} data, the slot or getter it maps to is cached for
+ * the last schema or class seen, so a read is an identity check and an array load or a getter
+ * call.
+ */
+public final class PropertyKey {
+    private final String name;
+    // Replaced as a whole, so a racing reader always sees a consistent owner and accessor
+    private Binding binding;
+
+    public PropertyKey(String name) {
+        this.name = name.intern();
+    }
+
+    public static PropertyKey[] path(String[] names) {
+        PropertyKey[] keys = new PropertyKey[names.length];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = new PropertyKey(names[i]);
+        }
+        return keys;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the value of this key in {@code data}, or {@code null} when absent.
+     */
+    public Object get(Map<String, ?> data) {
+        if (data instanceof SlotRow) {
+            SlotRow row = (SlotRow) data;
+            Binding current = binding;
+            if (current == null || current.owner != row.getSchema()) {
+                current = new Binding(row.getSchema(), row.getSchema().slotOf(name), null);
+                binding = current;
+            }
+            return row.getSlot(current.slot);
+        }
+        if (data instanceof BeanRow) {
+            BeanRow row = (BeanRow) data;
+            Binding current = binding;
+            if (current == null || current.owner != row.getType()) {
+                current = new Binding(row.getType(), -1, row.getType().getter(name));
+                binding = current;
+            }
+            return current.getter != null ? BeanType.adapt(current.getter.apply(row.getBean())) : null;
+        }
+        return data.get(name);
+    }
+
+    private static final class Binding {
+        // The RowSchema or BeanType this binding was resolved for
+        private final Object owner;
+        private final int slot;
+        private final Function<Object, Object> getter;
+
+        Binding(Object owner, int slot, Function<Object, Object> getter) {
+            this.owner = owner;
+            this.slot = slot;
+            this.getter = getter;
+        }
+    }
+}
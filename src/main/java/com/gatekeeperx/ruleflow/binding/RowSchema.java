@@ -0,0 +1,69 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns the top-level fields of a request to integer slots, so requests can be passed as
+ * {@code Object[]} rows wrapped in a {@link SlotRow} instead of hash maps. Create one schema per
+ * request shape and reuse it for every row; property reads against its rows are array loads.
+ */
+public final class RowSchema {
+    private final String[] fields;
+    private final Map<String, Integer> slots;
+
+    private RowSchema(String[] fields) {
+        this.fields = fields;
+        this.slots = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            if (slots.put(fields[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate field in schema: " + fields[i]);
+            }
+        }
+    }
+
+    public static RowSchema of(String... fields) {
+        String[] interned = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            interned[i] = fields[i].intern();
+        }
+        return new RowSchema(interned);
+    }
+
+    public static RowSchema of(List<String> fields) {
+        return of(fields.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the slot of {@code field}, or -1 when the schema does not have it.
+     */
+    public int slotOf(String field) {
+        Integer slot = slots.get(field);
+        return slot != null ? slot : -1;
+    }
+
+    public String getField(int slot) {
+        return fields[slot];
+    }
+
+    public List<String> getFields() {
+        return List.copyOf(Arrays.asList(fields));
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Wraps {@code values}, indexed by slot, as a request. The array is not copied.
+     */
+    public SlotRow row(Object... values) {
+        if (values.length != fields.length) {
+            throw new IllegalArgumentException(
+                "Row has " + values.length + " values, schema has " + fields.length + " fields");
+        }
+        return new SlotRow(this, values);
+    }
+}
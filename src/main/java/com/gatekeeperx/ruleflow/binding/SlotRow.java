@@ -0,0 +1,90 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A request backed by an {@code Object[]} indexed by the slots of a {@link RowSchema}. It reads
+ * like an unmodifiable map in which {@code null} values are absent keys, as they would be in a
+ * map built from the same request.
+ */
+public final class SlotRow extends AbstractMap<String, Object> {
+    private final RowSchema schema;
+    private final Object[] values;
+
+    SlotRow(RowSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the value in {@code slot}, or {@code null} for slot -1.
+     */
+    public Object getSlot(int slot) {
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String ? getSlot(schema.slotOf((String) key)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        int slot = from;
+                        while (slot < values.length && values[slot] == null) {
+                            slot++;
+                        }
+                        return slot;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry = new SimpleImmutableEntry<>(schema.getField(next), values[next]);
+                        next = advance(next + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (Object value : values) {
+                    if (value != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Selections of one {@link ColumnBatch}, computed the first time a condition is reached.
+ */
+public class BatchSelections {
+    private final ColumnBatch batch;
+    private final Map<VectorExpr, Selection> selections = new IdentityHashMap<>();
+
+    public BatchSelections(ColumnBatch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Returns the condition's outcome for a row, or {@code null} when the row must be
+     * evaluated row-wise.
+     */
+    public Boolean test(VectorExpr condition, int row) {
+        Selection selection = selections.computeIfAbsent(condition, expr -> expr.select(batch));
+        return selection.isFallback(row) ? null : selection.matches(row);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+import java.util.BitSet;
+
+/**
+ * A typed column of a {@link ColumnBatch}. Null cells are tracked in a bitmap and read as
+ * missing properties, exactly like an absent key in a request map.
+ */
+public abstract class Column {
+    private final BitSet nulls;
+
+    Column(BitSet nulls) {
+        this.nulls = nulls;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    BitSet getNulls() {
+        return nulls;
+    }
+
+    /**
+     * Returns the cell boxed the way a request map would hold it, or {@code null}.
+     */
+    public abstract Object get(int row);
+
+    public static final class Doubles extends Column {
+        private final double[] values;
+
+        Doubles(double[] values, BitSet nulls) {
+            super(nulls);
+            this.values = values;
+        }
+
+        public double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    public static final class Longs extends Column {
+        private final long[] values;
+
+        Longs(long[] values, BitSet nulls) {
+            super(nulls);
+            this.values = values;
+        }
+
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    public static final class Strings extends Column {
+        private final String[] values;
+
+        Strings(String[] values, BitSet nulls) {
+            super(nulls);
+            this.values = values;
+        }
+
+        public String getString(int row) {
+            return values[row];
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A batch of rows sharing one schema, stored as typed columns.
+ * <p>
+ * Column arrays are not copied and must not change while the batch is evaluated. A row reads
+ * as a request map holding the non-null cells of that row.
+ */
+public class ColumnBatch {
+    private final int rowCount;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    public ColumnBatch(int rowCount) {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Row count must not be negative: " + rowCount);
+        }
+        this.rowCount = rowCount;
+    }
+
+    public ColumnBatch addDoubles(String name, double[] values, BitSet nulls) {
+        checkLength(name, values.length);
+        return add(name, new Column.Doubles(values, copy(nulls)));
+    }
+
+    public ColumnBatch addLongs(String name, long[] values, BitSet nulls) {
+        checkLength(name, values.length);
+        return add(name, new Column.Longs(values, copy(nulls)));
+    }
+
+    public ColumnBatch addStrings(String name, String[] values) {
+        return addStrings(name, values, null);
+    }
+
+    /**
+     * Adds a string column; {@code null} entries are null cells as well as those set in {@code nulls}.
+     */
+    public ColumnBatch addStrings(String name, String[] values, BitSet nulls) {
+        checkLength(name, values.length);
+        BitSet allNulls = copy(nulls);
+        for (int row = 0; row < values.length; row++) {
+            if (values[row] == null) {
+                allNulls.set(row);
+            }
+        }
+        return add(name, new Column.Strings(values, allNulls));
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public Column getColumn(String name) {
+        return columns.get(name);
+    }
+
+    /**
+     * Returns a read-only view of one row as a request map.
+     */
+    public Map<String, Object> row(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + rowCount);
+        }
+        return new RowView(row);
+    }
+
+    /**
+     * Returns all rows as request map views, in row order.
+     */
+    public List<Map<String, Object>> rows() {
+        return new AbstractList<>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    private ColumnBatch add(String name, Column column) {
+        if (columns.putIfAbsent(name, column) != null) {
+            throw new IllegalArgumentException("Duplicate column " + name);
+        }
+        return this;
+    }
+
+    private void checkLength(String name, int length) {
+        if (length != rowCount) {
+            throw new IllegalArgumentException(
+                "Column " + name + " has " + length + " values, expected " + rowCount);
+        }
+    }
+
+    private static BitSet copy(BitSet nulls) {
+        return nulls == null ? new BitSet() : (BitSet) nulls.clone();
+    }
+
+    private class RowView extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Column column = columns.get(key);
+            return column == null ? null : column.get(row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Map.Entry<String, Column>> it = columns.entrySet().iterator();
+                    return new Iterator<>() {
+                        private Entry<String, Object> next = advance();
+
+                        private Entry<String, Object> advance() {
+                            while (it.hasNext()) {
+                                Map.Entry<String, Column> column = it.next();
+                                Object value = column.getValue().get(row);
+                                if (value != null) {
+                                    return new SimpleImmutableEntry<>(column.getKey(), value);
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> current = next;
+                            next = advance();
+                            return current;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Column column : columns.values()) {
+                        if (!column.isNull(row)) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Result of a condition evaluated over a whole {@link ColumnBatch}: rows that match, and rows
+ * whose outcome depends on row-wise evaluation (missing values, type errors) and must be
+ * evaluated one by one to reproduce the same warnings.
+ */
+public final class Selection {
+    private final BitSet match;
+    private final BitSet fallback;
+
+    Selection(BitSet match, BitSet fallback) {
+        match.andNot(fallback);
+        this.match = match;
+        this.fallback = fallback;
+    }
+
+    static Selection fallback(int rowCount) {
+        BitSet all = new BitSet(rowCount);
+        all.set(0, rowCount);
+        return new Selection(new BitSet(), all);
+    }
+
+    public boolean matches(int row) {
+        return match.get(row);
+    }
+
+    public boolean isFallback(int row) {
+        return fallback.get(row);
+    }
+
+    /**
+     * Short-circuit AND: the right side only decides rows the left side matched.
+     */
+    Selection and(Selection right) {
+        BitSet fallback = (BitSet) right.fallback.clone();
+        fallback.and(match);
+        fallback.or(this.fallback);
+        BitSet match = (BitSet) this.match.clone();
+        match.and(right.match);
+        return new Selection(match, fallback);
+    }
+
+    /**
+     * Short-circuit OR: the right side only decides rows the left side did not match.
+     */
+    Selection or(Selection right) {
+        BitSet fallback = (BitSet) right.fallback.clone();
+        fallback.andNot(match);
+        fallback.or(this.fallback);
+        BitSet match = (BitSet) this.match.clone();
+        match.or(right.match);
+        return new Selection(match, fallback);
+    }
+}
@@ -0,0 +1,223 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import java.util.BitSet;
+import java.util.Set;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Lowers rule conditions into {@link VectorExpr}s where that is possible without changing
+ * results: comparisons between a column and a literal, {@code in} over literal lists, and
+ * {@code and}/{@code or}/parentheses over those. Anything else stays row-wise.
+ * <p>
+ * Selections reproduce {@code ComparatorContextEvaluator} and {@code ListContextEvaluator}
+ * for the value types a column can hold; null cells, and mixed types whose row-wise outcome
+ * is an error or a string fallback, are left to row-wise evaluation.
+ */
+public final class VectorCompiler {
+
+    private VectorCompiler() {
+    }
+
+    /**
+     * Returns the column-at-a-time form of a condition, or {@code null} when it must be
+     * evaluated row by row. The result holds column names and literals only, never the tree.
+     */
+    public static VectorExpr compile(ParseTree tree) {
+        if (tree instanceof RuleFlowLanguageParser.ParenthesisContext) {
+            return compile(((RuleFlowLanguageParser.ParenthesisContext) tree).expr());
+        } else if (tree instanceof RuleFlowLanguageParser.BinaryAndContext) {
+            RuleFlowLanguageParser.BinaryAndContext ctx = (RuleFlowLanguageParser.BinaryAndContext) tree;
+            // Stop at the first side that only runs row by row
+            VectorExpr left = compile(ctx.left);
+            VectorExpr right = left == null ? null : compile(ctx.right);
+            return right == null ? null : batch -> left.select(batch).and(right.select(batch));
+        } else if (tree instanceof RuleFlowLanguageParser.BinaryOrContext) {
+            RuleFlowLanguageParser.BinaryOrContext ctx = (RuleFlowLanguageParser.BinaryOrContext) tree;
+            VectorExpr left = compile(ctx.left);
+            VectorExpr right = left == null ? null : compile(ctx.right);
+            return right == null ? null : batch -> left.select(batch).or(right.select(batch));
+        } else if (tree instanceof RuleFlowLanguageParser.ComparatorContext) {
+            return compileComparison((RuleFlowLanguageParser.ComparatorContext) tree);
+        } else if (tree instanceof RuleFlowLanguageParser.ListContext) {
+            return compileIn((RuleFlowLanguageParser.ListContext) tree);
+        }
+        return null;
+    }
+
+    private static VectorExpr compileComparison(RuleFlowLanguageParser.ComparatorContext ctx) {
+        int op = ctx.op.getType();
+        String leftColumn = columnName(ctx.left);
+        String rightColumn = columnName(ctx.right);
+        if (leftColumn != null) {
+            Object literal = literal(ctx.right);
+            return literal == null ? null : new Comparison(leftColumn, op, literal, true);
+        } else if (rightColumn != null) {
+            Object literal = literal(ctx.left);
+            return literal == null ? null : new Comparison(rightColumn, op, literal, false);
+        }
+        return null;
+    }
+
+    private static VectorExpr compileIn(RuleFlowLanguageParser.ListContext ctx) {
+        String column = columnName(ctx.value);
+        if (column == null || ctx.op.getType() != RuleFlowLanguageLexer.K_IN || ctx.values.literalList == null) {
+            return null;
+        }
+        Set<String> literals = Set.copyOf(ctx.values.string_literal().stream()
+            .map(literal -> literal.getText().replace("'", ""))
+            .toList());
+        boolean not = ctx.not != null;
+        return batch -> {
+            int rowCount = batch.getRowCount();
+            Column values = batch.getColumn(column);
+            if (values == null) {
+                return Selection.fallback(rowCount);
+            }
+            BitSet fallback = (BitSet) values.getNulls().clone();
+            BitSet match = new BitSet(rowCount);
+            // Numbers never equal a string literal
+            Column.Strings strings = values instanceof Column.Strings ? (Column.Strings) values : null;
+            for (int row = fallback.nextClearBit(0); row < rowCount; row = fallback.nextClearBit(row + 1)) {
+                boolean contains = strings != null && literals.contains(strings.getString(row));
+                if (contains != not) {
+                    match.set(row);
+                }
+            }
+            return new Selection(match, fallback);
+        };
+    }
+
+    /**
+     * Name of the column read by a simple, non-root property reference.
+     */
+    private static String columnName(ParseTree tree) {
+        if (!(tree instanceof RuleFlowLanguageParser.PropertyContext)) {
+            return null;
+        }
+        RuleFlowLanguageParser.ValidPropertyContext property =
+            ((RuleFlowLanguageParser.PropertyContext) tree).validProperty();
+        if (property.root != null || property.property == null
+            || property.property.K_ELEM() != null) {
+            return null;
+        }
+        return property.property.getText();
+    }
+
+    private static Object literal(ParseTree tree) {
+        if (!(tree instanceof RuleFlowLanguageParser.ValueContext)) {
+            return null;
+        }
+        CompiledExpr value = ExprCompiler.root().compile(tree);
+        if (value instanceof ConstantExpr) {
+            Object constant = ((ConstantExpr) value).getValue();
+            if (constant instanceof Double || constant instanceof String) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    private static Double tryParseNumber(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean test(int op, int comparison) {
+        return switch (op) {
+            case RuleFlowLanguageParser.EQ -> comparison == 0;
+            case RuleFlowLanguageParser.NOT_EQ -> comparison != 0;
+            case RuleFlowLanguageParser.LT -> comparison < 0;
+            case RuleFlowLanguageParser.LT_EQ -> comparison <= 0;
+            case RuleFlowLanguageParser.GT -> comparison > 0;
+            case RuleFlowLanguageParser.GT_EQ -> comparison >= 0;
+            default -> throw new IllegalStateException("Unexpected operator " + op);
+        };
+    }
+
+    private static final class Comparison implements VectorExpr {
+        private final String column;
+        private final int op;
+        private final Object literal;
+        private final boolean columnOnLeft;
+
+        Comparison(String column, int op, Object literal, boolean columnOnLeft) {
+            this.column = column;
+            this.op = op;
+            this.literal = literal;
+            this.columnOnLeft = columnOnLeft;
+        }
+
+        @Override
+        public Selection select(ColumnBatch batch) {
+            int rowCount = batch.getRowCount();
+            Column values = batch.getColumn(column);
+            if (values == null) {
+                return Selection.fallback(rowCount);
+            }
+            BitSet fallback = (BitSet) values.getNulls().clone();
+            BitSet match = new BitSet(rowCount);
+            if (literal instanceof Double && values instanceof Column.Doubles && op != RuleFlowLanguageParser.EQ_IC) {
+                double number = (Double) literal;
+                Column.Doubles doubles = (Column.Doubles) values;
+                for (int row = fallback.nextClearBit(0); row < rowCount; row = fallback.nextClearBit(row + 1)) {
+                    if (test(op, compare(doubles.getDouble(row), number))) {
+                        match.set(row);
+                    }
+                }
+            } else if (literal instanceof Double && values instanceof Column.Longs && op != RuleFlowLanguageParser.EQ_IC) {
+                double number = (Double) literal;
+                Column.Longs longs = (Column.Longs) values;
+                for (int row = fallback.nextClearBit(0); row < rowCount; row = fallback.nextClearBit(row + 1)) {
+                    if (test(op, compare((double) longs.getLong(row), number))) {
+                        match.set(row);
+                    }
+                }
+            } else if (literal instanceof String && values instanceof Column.Strings) {
+                selectStrings((String) literal, (Column.Strings) values, rowCount, match, fallback);
+            } else {
+                // Mixed types go through string parsing or fail row-wise
+                return Selection.fallback(rowCount);
+            }
+            return new Selection(match, fallback);
+        }
+
+        private void selectStrings(String text, Column.Strings strings, int rowCount, BitSet match, BitSet fallback) {
+            // Two numeric strings compare as numbers, as they do row-wise
+            Double number = tryParseNumber(text);
+            for (int row = fallback.nextClearBit(0); row < rowCount; row = fallback.nextClearBit(row + 1)) {
+                String value = strings.getString(row);
+                Double valueNumber = number == null ? null : tryParseNumber(value);
+                boolean result;
+                if (valueNumber != null) {
+                    if (op == RuleFlowLanguageParser.EQ_IC) {
+                        fallback.set(row);
+                        continue;
+                    }
+                    result = test(op, compare(valueNumber, number));
+                } else if (op == RuleFlowLanguageParser.EQ_IC) {
+                    result = value.equalsIgnoreCase(text);
+                } else {
+                    result = test(op, columnOnLeft ? value.compareTo(text) : text.compareTo(value));
+                }
+                if (result) {
+                    match.set(row);
+                }
+            }
+        }
+
+        private int compare(double value, double number) {
+            return columnOnLeft ? Double.compare(value, number) : Double.compare(number, value);
+        }
+    }
+}
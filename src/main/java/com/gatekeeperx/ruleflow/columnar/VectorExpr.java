@@ -0,0 +1,9 @@
+package com.gatekeeperx.ruleflow.columnar;
+
+/**
+ * A condition evaluated column-at-a-time over a {@link ColumnBatch}.
+ */
+@FunctionalInterface
+public interface VectorExpr {
+    Selection select(ColumnBatch batch);
+}
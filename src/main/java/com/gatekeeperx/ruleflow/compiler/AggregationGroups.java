@@ -0,0 +1,156 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.AggregationContext;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.NumericAggregationContext;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Aggregations of one workflow that read the same source property, found before the workflow
+ * is compiled so that each group can be computed in a single pass over its list.
+ * <p>
+ * Only aggregations evaluated against the request take part, as those inside {@code evalInList}
+ * or aggregation predicates see other data. Sources must be property paths, which keep their
+ * value for a whole evaluation. {@code distinct} is left out, as it does not reduce to a pass.
+ * A source forms a group once it is aggregated at least twice, even by the same aggregation.
+ */
+public final class AggregationGroups {
+    private static final AggregationGroups NONE = new AggregationGroups(Map.of());
+
+    private final Map<ParserRuleContext, Group> groups;
+
+    private AggregationGroups(Map<ParserRuleContext, Group> groups) {
+        this.groups = groups;
+    }
+
+    public static AggregationGroups none() {
+        return NONE;
+    }
+
+    public static AggregationGroups of(ParseTree tree) {
+        Map<String, List<ParserRuleContext>> bySource = new LinkedHashMap<>();
+        collect(tree, bySource);
+        Map<ParserRuleContext, Group> groups = new IdentityHashMap<>();
+        bySource.forEach((source, aggregations) -> {
+            if (aggregations.size() > 1) {
+                Group group = new Group(source, aggregations);
+                aggregations.forEach(aggregation -> groups.put(aggregation, group));
+            }
+        });
+        return groups.isEmpty() ? NONE : new AggregationGroups(groups);
+    }
+
+    /**
+     * Returns the group of an aggregation or numeric aggregation, or {@code null} when it is
+     * computed on its own.
+     */
+    public Group groupOf(ParserRuleContext ctx) {
+        return groups.get(ctx);
+    }
+
+    private static void collect(ParseTree tree, Map<String, List<ParserRuleContext>> bySource) {
+        if (tree instanceof AggregationContext aggregation) {
+            if (aggregation.op.getType() != RuleFlowLanguageLexer.K_DISTINCT && isPropertyPath(aggregation.value)) {
+                bySource.computeIfAbsent(aggregation.value.getText(), source -> new ArrayList<>()).add(aggregation);
+            }
+            collect(aggregation.value, bySource);
+            return;
+        }
+        if (tree instanceof NumericAggregationContext aggregation) {
+            if (isPropertyPath(aggregation.value)) {
+                bySource.computeIfAbsent(aggregation.value.getText(), source -> new ArrayList<>()).add(aggregation);
+            }
+            collect(aggregation.value, bySource);
+            return;
+        }
+        if (tree instanceof RuleFlowLanguageParser.EvalInListContext) {
+            return;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collect(tree.getChild(i), bySource);
+        }
+    }
+
+    private static boolean isPropertyPath(RuleFlowLanguageParser.ExprContext expr) {
+        while (expr instanceof RuleFlowLanguageParser.MemberAccessContext memberAccess) {
+            expr = memberAccess.base;
+        }
+        return expr instanceof RuleFlowLanguageParser.PropertyContext;
+    }
+
+    /**
+     * The aggregations over one source. Repeated aggregations share a slot, so each distinct
+     * operation and predicate is computed once.
+     */
+    public static final class Group {
+        private final String source;
+        private final List<ParserRuleContext> members = new ArrayList<>();
+        private final Map<ParserRuleContext, Integer> slots = new IdentityHashMap<>();
+        private Object compiled;
+
+        private Group(String source, List<ParserRuleContext> aggregations) {
+            this.source = source;
+            Map<String, Integer> slotsByText = new LinkedHashMap<>();
+            for (ParserRuleContext aggregation : aggregations) {
+                // The source is the same for the whole group, so the text tells aggregations apart
+                String text = aggregation.getText();
+                Integer slot = slotsByText.get(text);
+                if (slot == null) {
+                    slot = members.size();
+                    slotsByText.put(text, slot);
+                    members.add(aggregation);
+                }
+                slots.put(aggregation, slot);
+            }
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * The distinct aggregations of the group, in workflow order: {@link AggregationContext}s
+         * and {@link NumericAggregationContext}s.
+         */
+        public List<ParserRuleContext> getMembers() {
+            return members;
+        }
+
+        /**
+         * The source expression of the group, as written by its first aggregation.
+         */
+        public RuleFlowLanguageParser.ExprContext getSourceExpr() {
+            ParserRuleContext first = members.get(0);
+            return first instanceof AggregationContext aggregation
+                ? aggregation.value
+                : ((NumericAggregationContext) first).value;
+        }
+
+        /**
+         * The index in {@link #getMembers()} of the aggregation computing {@code ctx}.
+         */
+        public int slotOf(ParserRuleContext ctx) {
+            return slots.get(ctx);
+        }
+
+        /**
+         * Returns the group's compiled form, compiling it on first use so that every member
+         * of the group shares it.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T compiled(Function<Group, T> compile) {
+            if (compiled == null) {
+                compiled = compile.apply(this);
+            }
+            return (T) compiled;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.visitors.Visitor;
+
+/**
+ * An expression node lowered from the parse tree when a workflow is built.
+ * Children and token text are bound at compile time, so evaluating a node never
+ * touches ANTLR contexts; the {@link Visitor} only carries the per-request state
+ * (input data, stored lists, functions and variables).
+ */
+@FunctionalInterface
+public interface CompiledExpr {
+    Object evaluate(Visitor visitor);
+}
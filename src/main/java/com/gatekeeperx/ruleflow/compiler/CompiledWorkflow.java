@@ -0,0 +1,288 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.columnar.VectorExpr;
+import java.util.List;
+
+/**
+ * A workflow lowered from its parse tree by {@link WorkflowCompiler}.
+ * Rulesets, rules and actions keep the names and source text needed for results and
+ * warnings, and every expression is already a {@link CompiledExpr}. Instances are
+ * immutable and hold no per-request state.
+ */
+public class CompiledWorkflow {
+    private final String rawName;
+    private final String name;
+    private final boolean multiMatch;
+    private final List<Ruleset> rulesets;
+    private final DefaultClause defaultClause;
+
+    public CompiledWorkflow(String rawName, boolean multiMatch, List<Ruleset> rulesets,
+                            DefaultClause defaultClause) {
+        this.rawName = rawName;
+        this.name = rawName.replace("'", "");
+        this.multiMatch = multiMatch;
+        this.rulesets = List.copyOf(rulesets);
+        this.defaultClause = defaultClause;
+    }
+
+    /** Workflow name as written in the source, quotes included. */
+    public String getRawName() {
+        return rawName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isMultiMatch() {
+        return multiMatch;
+    }
+
+    public List<Ruleset> getRulesets() {
+        return rulesets;
+    }
+
+    public DefaultClause getDefaultClause() {
+        return defaultClause;
+    }
+
+    public static class Ruleset {
+        private final String rawName;
+        private final String name;
+        private final String text;
+        private final CompiledExpr condition;
+        private final VectorExpr vectorCondition;
+        private final List<Rule> rules;
+
+        public Ruleset(String rawName, String text, CompiledExpr condition, VectorExpr vectorCondition,
+                       List<Rule> rules) {
+            this.rawName = rawName;
+            this.name = rawName.replace("'", "");
+            this.text = text;
+            this.condition = condition;
+            this.vectorCondition = vectorCondition;
+            this.rules = List.copyOf(rules);
+        }
+
+        public String getRawName() {
+            return rawName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /** Ruleset guard, or {@code null} when the ruleset always applies. */
+        public CompiledExpr getCondition() {
+            return condition;
+        }
+
+        /** Column-at-a-time form of the guard, or {@code null} when it only runs row by row. */
+        public VectorExpr getVectorCondition() {
+            return vectorCondition;
+        }
+
+        public List<Rule> getRules() {
+            return rules;
+        }
+    }
+
+    public enum Outcome {
+        /** {@code then <actions>}: return the rule name with the actions. */
+        THEN,
+        /** {@code then <actions> continue}: accumulate the actions and keep going. */
+        THEN_CONTINUE,
+        /** {@code <actions> continue}: accumulate the actions and keep going. */
+        INLINE_CONTINUE,
+        /** {@code continue}: only run the set clauses. */
+        CONTINUE,
+        /** {@code return [result] [actions]}. */
+        RETURN
+    }
+
+    public static class Rule {
+        private final String rawName;
+        private final String name;
+        private final String text;
+        private final CompiledExpr condition;
+        private final VectorExpr vectorCondition;
+        private final List<SetClause> setClauses;
+        private final Outcome outcome;
+        private final CompiledExpr result;
+        private final List<ActionCall> actions;
+
+        public Rule(String rawName, String text, CompiledExpr condition, VectorExpr vectorCondition,
+                    List<SetClause> setClauses, Outcome outcome, CompiledExpr result, List<ActionCall> actions) {
+            this.rawName = rawName;
+            this.name = rawName.replace("'", "");
+            this.text = text;
+            this.condition = condition;
+            this.vectorCondition = vectorCondition;
+            this.setClauses = List.copyOf(setClauses);
+            this.outcome = outcome;
+            this.result = result;
+            this.actions = actions == null ? null : List.copyOf(actions);
+        }
+
+        public String getRawName() {
+            return rawName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /** Rule expression, or {@code null} for an always-true rule. */
+        public CompiledExpr getCondition() {
+            return condition;
+        }
+
+        /** Column-at-a-time form of the rule expression, or {@code null} when it only runs row by row. */
+        public VectorExpr getVectorCondition() {
+            return vectorCondition;
+        }
+
+        public List<SetClause> getSetClauses() {
+            return setClauses;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /** Return value of a {@link Outcome#RETURN} rule, or {@code null} to return the rule name. */
+        public CompiledExpr getResult() {
+            return result;
+        }
+
+        /** Actions attached to the rule, or {@code null} when there are none. */
+        public List<ActionCall> getActions() {
+            return actions;
+        }
+    }
+
+    public static class SetClause {
+        private final String variable;
+        private final int compoundOp;
+        private final CompiledExpr expr;
+
+        /**
+         * @param compoundOp token type of the compound operator, or {@code -1} for a plain assignment
+         */
+        public SetClause(String variable, int compoundOp, CompiledExpr expr) {
+            this.variable = variable;
+            this.compoundOp = compoundOp;
+            this.expr = expr;
+        }
+
+        public String getVariable() {
+            return variable;
+        }
+
+        public boolean isCompound() {
+            return compoundOp != -1;
+        }
+
+        public int getCompoundOp() {
+            return compoundOp;
+        }
+
+        public CompiledExpr getExpr() {
+            return expr;
+        }
+    }
+
+    public static class ActionCall {
+        private final String name;
+        private final List<ActionParam> params;
+
+        public ActionCall(String name, List<ActionParam> params) {
+            this.name = name;
+            this.params = List.copyOf(params);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<ActionParam> getParams() {
+            return params;
+        }
+    }
+
+    public static class ActionParam {
+        private final String name;
+        private final String constant;
+        private final CompiledExpr property;
+        private final String propertyText;
+
+        private ActionParam(String name, String constant, CompiledExpr property, String propertyText) {
+            this.name = name;
+            this.constant = constant;
+            this.property = property;
+            this.propertyText = propertyText;
+        }
+
+        public static ActionParam constant(String name, String value) {
+            return new ActionParam(name, value, null, null);
+        }
+
+        public static ActionParam property(String name, CompiledExpr property, String propertyText) {
+            return new ActionParam(name, null, property, propertyText);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isConstant() {
+            return property == null;
+        }
+
+        public String getConstant() {
+            return constant;
+        }
+
+        public CompiledExpr getProperty() {
+            return property;
+        }
+
+        public String getPropertyText() {
+            return propertyText;
+        }
+    }
+
+    public static class DefaultClause {
+        private final CompiledExpr result;
+        private final String state;
+        private final List<ActionCall> actions;
+
+        public DefaultClause(CompiledExpr result, String state, List<ActionCall> actions) {
+            this.result = result;
+            this.state = state;
+            this.actions = actions == null ? null : List.copyOf(actions);
+        }
+
+        /** Default expression result, or {@code null} when the default is a state. */
+        public CompiledExpr getResult() {
+            return result;
+        }
+
+        /** Default state, or {@code null} when the default is an expression. */
+        public String getState() {
+            return state;
+        }
+
+        public List<ActionCall> getActions() {
+            return actions;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.visitors.Visitor;
+
+/**
+ * A node whose value is known when the workflow is built: a decoded literal, or a
+ * sub-expression folded from constant operands. Evaluators check for it to fold
+ * their own result at compile time.
+ */
+public final class ConstantExpr implements CompiledExpr {
+    private final Object value;
+
+    public ConstantExpr(Object value) {
+        this.value = value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public Object evaluate(Visitor visitor) {
+        return value;
+    }
+
+    public static boolean allConstant(CompiledExpr... exprs) {
+        for (CompiledExpr expr : exprs) {
+            if (!(expr instanceof ConstantExpr)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstantExpr{" + value + "}";
+    }
+}
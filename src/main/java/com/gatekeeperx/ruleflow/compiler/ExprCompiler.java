@@ -0,0 +1,198 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.PropertyTupleContext;
+import com.gatekeeperx.ruleflow.evaluators.AggregationContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.BinaryAndContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.BinaryOrContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ComparatorContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.CustomFunctionCallContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateAddContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateDiffContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateOperationContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateParseExprContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateSubtractContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DateValueContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.DayOfWeekContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.EvalInListContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.GeoOperationContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ListContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.MathAddContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.MathMulContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.MemberAccessContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.NumericAggregationContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.NowContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ParenthesisContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.PropertyContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.PropertyTupleContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.RegexContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.StoredListExprContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.StringDistanceContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.TupleListContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.UnaryContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ValidPropertyContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.ValueContextEvaluator;
+import com.gatekeeperx.ruleflow.evaluators.VariableRefContextEvaluator;
+import java.util.HashMap;
+import java.util.Map;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Lowers expression contexts into {@link CompiledExpr} nodes.
+ * <p>
+ * A compiler is either at the workflow root or inside an {@code evalInList}
+ * predicate. Inside a predicate, property references resolve {@code elem}/{@code it}
+ * against the current list item and fall back to the enclosing compiler otherwise.
+ */
+public class ExprCompiler {
+    /**
+     * Lowering for one context class, backed by a stateless evaluator shared by every compiler.
+     */
+    @FunctionalInterface
+    private interface Lowering {
+        CompiledExpr lower(ParserRuleContext ctx, ExprCompiler compiler);
+    }
+
+    private static final Map<Class<? extends ParserRuleContext>, Lowering> LOWERINGS = new HashMap<>();
+
+    static {
+        register(RuleFlowLanguageParser.ComparatorContext.class, new ComparatorContextEvaluator());
+        register(RuleFlowLanguageParser.AggregationContext.class, new AggregationContextEvaluator());
+        register(RuleFlowLanguageParser.NumericAggregationContext.class, new NumericAggregationContextEvaluator());
+        register(RuleFlowLanguageParser.MathMulContext.class, new MathMulContextEvaluator());
+        register(RuleFlowLanguageParser.MathAddContext.class, new MathAddContextEvaluator());
+        register(RuleFlowLanguageParser.ParenthesisContext.class, new ParenthesisContextEvaluator());
+        register(RuleFlowLanguageParser.ValueContext.class, new ValueContextEvaluator());
+        register(RuleFlowLanguageParser.PropertyContext.class, new PropertyContextEvaluator());
+        register(RuleFlowLanguageParser.ValidPropertyContext.class, new ValidPropertyContextEvaluator());
+        register(PropertyTupleContext.class, new PropertyTupleContextEvaluator());
+        register(RuleFlowLanguageParser.DateDiffContext.class, new DateDiffContextEvaluator());
+        register(RuleFlowLanguageParser.DateAddContext.class, new DateAddContextEvaluator());
+        register(RuleFlowLanguageParser.DateSubtractContext.class, new DateSubtractContextEvaluator());
+        register(RuleFlowLanguageParser.ListContext.class, new ListContextEvaluator());
+        register(RuleFlowLanguageParser.TupleListContext.class, new TupleListContextEvaluator());
+        register(RuleFlowLanguageParser.UnaryContext.class, new UnaryContextEvaluator());
+        register(RuleFlowLanguageParser.BinaryAndContext.class, new BinaryAndContextEvaluator());
+        register(RuleFlowLanguageParser.BinaryOrContext.class, new BinaryOrContextEvaluator());
+        register(RuleFlowLanguageParser.DayOfWeekContext.class, new DayOfWeekContextEvaluator());
+        register(RuleFlowLanguageParser.RegexlikeContext.class, new RegexContextEvaluator());
+        register(RuleFlowLanguageParser.DateValueContext.class, new DateValueContextEvaluator());
+        register(RuleFlowLanguageParser.DateParseExprContext.class, new DateParseExprContextEvaluator());
+        register(RuleFlowLanguageParser.DateOperationContext.class, new DateOperationContextEvaluator());
+        register(RuleFlowLanguageParser.NowContext.class, new NowContextEvaluator());
+        register(RuleFlowLanguageParser.GeoOperationContext.class, new GeoOperationContextEvaluator());
+        register(RuleFlowLanguageParser.StoredListExprContext.class, new StoredListExprContextEvaluator());
+        register(RuleFlowLanguageParser.EvalInListContext.class, new EvalInListContextEvaluator());
+        register(RuleFlowLanguageParser.CustomFunctionCallContext.class, new CustomFunctionCallContextEvaluator());
+        register(RuleFlowLanguageParser.VariableRefContext.class, new VariableRefContextEvaluator());
+        register(RuleFlowLanguageParser.MemberAccessContext.class, new MemberAccessContextEvaluator());
+
+        StringDistanceContextEvaluator stringDistance = new StringDistanceContextEvaluator();
+        LOWERINGS.put(RuleFlowLanguageParser.StringDistanceContext.class, (ctx, compiler) ->
+            stringDistance.compileStringDistance((RuleFlowLanguageParser.StringDistanceContext) ctx, compiler));
+        LOWERINGS.put(RuleFlowLanguageParser.PartialRatioContext.class, (ctx, compiler) ->
+            stringDistance.compilePartialRatio((RuleFlowLanguageParser.PartialRatioContext) ctx, compiler));
+        LOWERINGS.put(RuleFlowLanguageParser.TokenSortRatioContext.class, (ctx, compiler) ->
+            stringDistance.compileTokenSortRatio((RuleFlowLanguageParser.TokenSortRatioContext) ctx, compiler));
+        LOWERINGS.put(RuleFlowLanguageParser.TokenSetRatioContext.class, (ctx, compiler) ->
+            stringDistance.compileTokenSetRatio((RuleFlowLanguageParser.TokenSetRatioContext) ctx, compiler));
+        LOWERINGS.put(RuleFlowLanguageParser.StringSimilarityScoreContext.class, (ctx, compiler) ->
+            stringDistance.compileStringSimilarityScore((RuleFlowLanguageParser.StringSimilarityScoreContext) ctx, compiler));
+    }
+
+    // Resolved once per concrete class; subclasses of a registered context inherit its lowering
+    private static final ClassValue<Lowering> DISPATCH = new ClassValue<>() {
+        @Override
+        protected Lowering computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                Lowering lowering = LOWERINGS.get(c);
+                if (lowering != null) {
+                    return lowering;
+                }
+            }
+            return (ctx, compiler) -> {
+                throw new IllegalArgumentException("Operation not supported: " + ctx.getClass());
+            };
+        }
+    };
+
+    private static <T extends ParserRuleContext> void register(Class<T> type, ContextEvaluator<T> evaluator) {
+        LOWERINGS.put(type, (ctx, compiler) -> evaluator.compile(type.cast(ctx), compiler));
+    }
+
+    private static final ExprCompiler ROOT = new ExprCompiler();
+
+    private final ExprCompiler enclosing;
+    private final AggregationGroups aggregations;
+
+    public ExprCompiler() {
+        this(AggregationGroups.none());
+    }
+
+    /**
+     * Returns a workflow-root compiler that computes each of {@code aggregations} in one pass.
+     */
+    public ExprCompiler(AggregationGroups aggregations) {
+        this(null, aggregations);
+    }
+
+    private ExprCompiler(ExprCompiler enclosing, AggregationGroups aggregations) {
+        this.enclosing = enclosing;
+        this.aggregations = aggregations;
+    }
+
+    /**
+     * Returns the shared workflow-root compiler; compilers hold no mutable state.
+     */
+    public static ExprCompiler root() {
+        return ROOT;
+    }
+
+    /**
+     * Returns a compiler for predicates evaluated against the items of a stored list.
+     */
+    public ExprCompiler listScope() {
+        return new ExprCompiler(this, AggregationGroups.none());
+    }
+
+    /**
+     * Returns the compiler for predicates evaluated with a fresh visitor, such as aggregations.
+     */
+    public ExprCompiler rootScope() {
+        return enclosing == null ? this : enclosing.rootScope();
+    }
+
+    public boolean isListScope() {
+        return enclosing != null;
+    }
+
+    public ExprCompiler getEnclosing() {
+        return enclosing;
+    }
+
+    /**
+     * Returns the group of aggregations sharing a source with {@code ctx}, or {@code null}
+     * when {@code ctx} is computed on its own.
+     */
+    public AggregationGroups.Group aggregationGroup(ParserRuleContext ctx) {
+        return aggregations.groupOf(ctx);
+    }
+
+    public CompiledExpr compile(ParseTree tree) {
+        ParserRuleContext ctx = (ParserRuleContext) tree;
+
+        if (isListScope()) {
+            if (ctx instanceof RuleFlowLanguageParser.PropertyContext) {
+                return EvalInListContextEvaluator.compileScopedProperty(
+                    ((RuleFlowLanguageParser.PropertyContext) ctx).validProperty(), this);
+            } else if (ctx instanceof RuleFlowLanguageParser.ValidPropertyContext) {
+                return EvalInListContextEvaluator.compileScopedProperty(
+                    (RuleFlowLanguageParser.ValidPropertyContext) ctx, this);
+            }
+        }
+
+        return DISPATCH.get(ctx.getClass()).lower(ctx, this);
+    }
+}
@@ -0,0 +1,152 @@
+package com.gatekeeperx.ruleflow.compiler;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.columnar.VectorCompiler;
+import com.gatekeeperx.ruleflow.columnar.VectorExpr;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.ActionCall;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.ActionParam;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.DefaultClause;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.Outcome;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.Rule;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.Ruleset;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.SetClause;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lowers a parsed workflow into a {@link CompiledWorkflow}. Runs once per
+ * {@link com.gatekeeperx.ruleflow.Workflow}, so none of the parse tree walking
+ * happens on the evaluation path.
+ */
+public class WorkflowCompiler {
+    private ExprCompiler exprCompiler = ExprCompiler.root();
+
+    public CompiledWorkflow compile(RuleFlowLanguageParser.ParseContext ctx) {
+        return compile(ctx.workflow());
+    }
+
+    public CompiledWorkflow compile(RuleFlowLanguageParser.WorkflowContext ctx) {
+        // Aggregations over the same property are computed together, once per evaluation
+        exprCompiler = new ExprCompiler(AggregationGroups.of(ctx));
+
+        boolean multiMatch = ctx.configuration() != null &&
+            ctx.configuration().evaluation_mode() != null &&
+            ctx.configuration().evaluation_mode().K_MULTI_MATCH() != null;
+
+        List<Ruleset> rulesets = new ArrayList<>();
+        for (RuleFlowLanguageParser.RulesetsContext ruleSet : ctx.rulesets()) {
+            rulesets.add(compileRuleset(ruleSet));
+        }
+        return new CompiledWorkflow(ctx.workflow_name().getText(), multiMatch, rulesets,
+            compileDefault(ctx.default_clause()));
+    }
+
+    private Ruleset compileRuleset(RuleFlowLanguageParser.RulesetsContext ruleSet) {
+        CompiledExpr condition = ruleSet.ruleset_condition() != null
+            ? exprCompiler.compile(ruleSet.ruleset_condition().expr())
+            : null;
+        // Lowered now, as the vector form must not keep the parse tree alive
+        VectorExpr vectorCondition = ruleSet.ruleset_condition() != null
+            ? VectorCompiler.compile(ruleSet.ruleset_condition().expr())
+            : null;
+        List<Rule> rules = new ArrayList<>();
+        for (RuleFlowLanguageParser.RulesContext rule : ruleSet.rules()) {
+            rules.add(compileRule(rule));
+        }
+        return new Ruleset(ruleSet.name().getText(), ruleSet.getText(), condition, vectorCondition, rules);
+    }
+
+    private Rule compileRule(RuleFlowLanguageParser.RulesContext rule) {
+        RuleFlowLanguageParser.Rule_bodyContext body = rule.rule_body();
+        // expr? — null means always-true rule
+        CompiledExpr condition = body.expr() != null ? exprCompiler.compile(body.expr()) : null;
+        VectorExpr vectorCondition = body.expr() != null ? VectorCompiler.compile(body.expr()) : null;
+
+        List<SetClause> setClauses = new ArrayList<>();
+        for (var setClause : body.set_clause()) {
+            String varName = setClause.variable.getText().substring(1);
+            int compoundOp = setClause.compound_op != null ? setClause.compound_op.getType() : -1;
+            setClauses.add(new SetClause(varName, compoundOp, exprCompiler.compile(setClause.expr())));
+        }
+
+        if (body.K_THEN() != null) {
+            Outcome outcome = body.K_CONTINUE() != null ? Outcome.THEN_CONTINUE : Outcome.THEN;
+            return new Rule(rule.name().getText(), rule.getText(), condition, vectorCondition, setClauses,
+                outcome, null, compileActions(body.then_result));
+        } else if (body.inline_actions != null) {
+            return new Rule(rule.name().getText(), rule.getText(), condition, vectorCondition, setClauses,
+                Outcome.INLINE_CONTINUE, null, compileActions(body.inline_actions));
+        } else if (body.K_CONTINUE() != null) {
+            return new Rule(rule.name().getText(), rule.getText(), condition, vectorCondition, setClauses,
+                Outcome.CONTINUE, null, null);
+        } else {
+            CompiledExpr result = body.result != null ? compileReturnResult(body.result) : null;
+            List<ActionCall> actions = body.actions() != null ? compileActions(body.actions()) : null;
+            return new Rule(rule.name().getText(), rule.getText(), condition, vectorCondition, setClauses,
+                Outcome.RETURN, result, actions);
+        }
+    }
+
+    private CompiledExpr compileReturnResult(RuleFlowLanguageParser.Return_resultContext result) {
+        if (result.expr() != null) {
+            return exprCompiler.compile(result.expr());
+        } else if (result.state() != null) {
+            String state = result.state().getText();
+            return visitor -> state;
+        } else {
+            String text = result.getText();
+            return visitor -> {
+                throw new IllegalArgumentException("Unsupported return result: " + text);
+            };
+        }
+    }
+
+    private DefaultClause compileDefault(RuleFlowLanguageParser.Default_clauseContext ctx) {
+        List<ActionCall> actions = ctx.actions() != null ? compileActions(ctx.actions()) : null;
+        RuleFlowLanguageParser.Return_resultContext result = ctx.return_result();
+        if (result.expr() != null) {
+            return new DefaultClause(exprCompiler.compile(result.expr()), null, actions);
+        } else if (result.state() != null) {
+            return new DefaultClause(null, result.state().getText(), actions);
+        }
+        return new DefaultClause(null, null, actions);
+    }
+
+    private List<ActionCall> compileActions(RuleFlowLanguageParser.ActionsContext context) {
+        List<ActionCall> actions = new ArrayList<>();
+        for (RuleFlowLanguageParser.ActionContext action : context.action()) {
+            String name;
+            if (action.K_ACTION() != null) {
+                name = action.param_value.getText().replace("'", "");
+            } else if (action.action_id.getText() != null) {
+                name = action.action_id.getText().replace("'", "");
+            } else {
+                throw new IllegalArgumentException("Cannot find action name or identifier in " + action.getText());
+            }
+            actions.add(new ActionCall(name, compileActionParams(action)));
+        }
+        return actions;
+    }
+
+    private List<ActionParam> compileActionParams(RuleFlowLanguageParser.ActionContext action) {
+        List<ActionParam> params = new ArrayList<>();
+        if (action.action_params() == null) {
+            return params;
+        }
+        for (var pair : action.action_params().param_pairs().param_pair()) {
+            String name = pair.field_name.getText().replace("'", "");
+            RuleFlowLanguageParser.ActionParamValueContext fieldValue = pair.field_value;
+            if (fieldValue.validValue() != null) {
+                // Handle string literals, numbers, booleans, etc.
+                params.add(ActionParam.constant(name, fieldValue.validValue().getText().replace("'", "")));
+            } else if (fieldValue.validProperty() != null) {
+                // Property references are resolved from the request data at evaluation time
+                params.add(ActionParam.property(name, exprCompiler.compile(fieldValue.validProperty()),
+                    fieldValue.validProperty().getText()));
+            } else {
+                throw new IllegalArgumentException("Unsupported action parameter value type: " + fieldValue.getText());
+            }
+        }
+        return params;
+    }
+}
@@ -1,7 +1,39 @@
 package com.gatekeeperx.ruleflow.errors;
 
 public class PropertyNotFoundException extends RuntimeException {
+    private final RuntimeException wrapper;
+
     public PropertyNotFoundException(String message) {
         super(message);
+        this.wrapper = null;
+    }
+
+    private PropertyNotFoundException(String message, boolean stackless) {
+        super(message, null, false, false);
+        this.wrapper = new Wrapper(this);
+    }
+
+    /**
+     * Creates an exception without a stack trace or suppressed exceptions, meant to be created
+     * once when an expression is compiled and thrown by every evaluation that misses the
+     * property. Missing fields are routine on sparse requests, so this keeps them from paying
+     * for {@link #fillInStackTrace()}. The instance is immutable and may be shared by threads.
+     */
+    public static PropertyNotFoundException stackless(String message) {
+        return new PropertyNotFoundException(message, true);
+    }
+
+    /**
+     * Returns this exception wrapped in a {@link RuntimeException}, the form the rule loop
+     * turns into a warning. Stackless instances return a wrapper allocated along with them.
+     */
+    public RuntimeException wrapped() {
+        return wrapper != null ? wrapper : new RuntimeException(this);
+    }
+
+    private static final class Wrapper extends RuntimeException {
+        Wrapper(PropertyNotFoundException cause) {
+            super(cause.toString(), cause, false, false);
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,9 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.AggregationGroups;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.TypeComparisonException;
 import com.gatekeeperx.ruleflow.visitors.Visitor;
 import org.slf4j.Logger;
@@ -17,132 +20,212 @@ public class AggregationContextEvaluator implements ContextEvaluator<RuleFlowLan
     private static final Logger logger = LoggerFactory.getLogger(AggregationContextEvaluator.class);
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.AggregationContext ctx, Visitor visitor) {
-        Object value = visitor.visit(ctx.value);
-
-        if (value instanceof List<?>) {
-            List<?> list = (List<?>) value;
-            boolean res = false;
-            switch (ctx.op.getType()) {
-                case RuleFlowLanguageLexer.K_ALL:
-                    res = list.stream().allMatch(data -> {
-                        try {
-                            return (Boolean) evalPredicate(data, visitor.getRoot(), visitor.getLists(), ctx.predicate);
-                        } catch (TypeComparisonException | NullPointerException e) { return false; }
-                    });
-                    logger.debug("Aggregation: ALL expr={}, result={}", value, res);
-                    return res;
-                case RuleFlowLanguageLexer.K_CONTAINS:
-                case RuleFlowLanguageLexer.K_ANY:
-                    res = list.stream().anyMatch(data -> {
-                        try {
-                            return (Boolean) evalPredicate(data, visitor.getRoot(), visitor.getLists(), ctx.predicate);
-                        } catch (TypeComparisonException | NullPointerException e) { return false; }
-                    });
-                    logger.debug("Aggregation: ANY/CONTAINS expr={}, result={}", value, res);
-                    return res;
-                case RuleFlowLanguageLexer.K_NONE:
-                    res = list.stream().noneMatch(data -> {
-                        try {
-                            return (Boolean) evalPredicate(data, visitor.getRoot(), visitor.getLists(), ctx.predicate);
-                        } catch (TypeComparisonException | NullPointerException e) { return false; }
-                    });
-                    logger.debug("Aggregation: NONE expr={}, result={}", value, res);
-                    return res;
-                case RuleFlowLanguageLexer.K_AVERAGE:
-                    Object average = average(list, ctx.predicate, visitor.getLists(),
-                        visitor.getRoot());
-                    logger.debug("Aggregation: AVERAGE expr={}, result={}", value, average);
-                    return average;
-                case RuleFlowLanguageLexer.K_COUNT:
-                    Object count = count(list, ctx.predicate, visitor.getLists(),
-                        visitor.getRoot());
-                    logger.debug("Aggregation: COUNT expr={}, result={}", value, count);
-                    return count;
-                case RuleFlowLanguageLexer.K_DISTINCT:
-                    Object distinctBy = distinctBy(list, ctx.predicate, visitor.getLists(),
-                        visitor.getRoot());
-                    logger.debug("Aggregation: DISTINCT expr={}, result={}", value, distinctBy);
-                    return res;
-                default:
-                    logger.debug("Aggregation: unknown expr={}", value);
-                throw new RuntimeException("Operation not supported: " + ctx.op.getText());
+    public CompiledExpr compile(RuleFlowLanguageParser.AggregationContext ctx, ExprCompiler compiler) {
+        AggregationGroups.Group group = compiler.aggregationGroup(ctx);
+        if (group != null) {
+            FusedAggregations fused = group.compiled(g -> new FusedAggregations(g, compiler));
+            int slot = group.slotOf(ctx);
+            return visitor -> fused.result(visitor, slot);
+        }
+
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
+        String valueText = ctx.value.getText();
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
+        // Predicates run against each item through a visitor of their own, so they never see an evalInList scope
+        Predicate predicate = Predicate.compile(ctx, compiler);
+
+        return visitor -> {
+            Object value = valueExpr.evaluate(visitor);
+            if (value instanceof List<?>) {
+                return aggregate(op, opText, (List<?>) value, predicate, visitor);
+            } else {
+                throw new RuntimeException(valueText + " is not a Collection");
             }
-        } else {
-            throw new RuntimeException(ctx.value.getText() + " is not a Collection");
+        };
+    }
+
+    private Object aggregate(int op, String opText, List<?> list, Predicate predicate, Visitor visitor) {
+        boolean res = false;
+        switch (op) {
+            case RuleFlowLanguageLexer.K_ALL:
+                res = new Items(list, predicate, visitor).allMatch();
+                logger.debug("Aggregation: ALL expr={}, result={}", list, res);
+                return res;
+            case RuleFlowLanguageLexer.K_CONTAINS:
+            case RuleFlowLanguageLexer.K_ANY:
+                res = new Items(list, predicate, visitor).anyMatch();
+                logger.debug("Aggregation: ANY/CONTAINS expr={}, result={}", list, res);
+                return res;
+            case RuleFlowLanguageLexer.K_NONE:
+                res = !new Items(list, predicate, visitor).anyMatch();
+                logger.debug("Aggregation: NONE expr={}, result={}", list, res);
+                return res;
+            case RuleFlowLanguageLexer.K_AVERAGE:
+                Object average = average(list, predicate, visitor);
+                logger.debug("Aggregation: AVERAGE expr={}, result={}", list, average);
+                return average;
+            case RuleFlowLanguageLexer.K_COUNT:
+                Object count = count(list, predicate, visitor);
+                logger.debug("Aggregation: COUNT expr={}, result={}", list, count);
+                return count;
+            case RuleFlowLanguageLexer.K_DISTINCT:
+                Object distinctBy = distinctBy(list, predicate, visitor);
+                logger.debug("Aggregation: DISTINCT expr={}, result={}", list, distinctBy);
+                return res;
+            default:
+                logger.debug("Aggregation: unknown expr={}", list);
+            throw new RuntimeException("Operation not supported: " + opText);
         }
     }
 
-    private Object distinctBy(
-        List<?> list,
-        RuleFlowLanguageParser.ExprContext predicate,
-        Map<String, List<?>> lists,
-        Object root) {
+    private Object distinctBy(List<?> list, Predicate predicate, Visitor visitor) {
         if (predicate == null) {
             return list;
-        } else if (predicate instanceof RuleFlowLanguageParser.ValueContext) {
+        } else if (predicate.isValue()) {
             return list.stream().distinct().collect(Collectors.toList());
         } else {
-            return list.stream().distinct().map(data -> evalPredicate(data, root, lists, predicate)).collect(Collectors.toList());
+            Items items = new Items(list, predicate, visitor);
+            return list.stream().distinct().map(items::evaluate).collect(Collectors.toList());
         }
     }
 
-    private Object average(
-        List<?> list,
-        RuleFlowLanguageParser.ExprContext predicate,
-        Map<String, List<?>> lists,
-        Object root) {
-        BigDecimal count = new BigDecimal(count(list, predicate, lists, root).toString());
+    private Object average(List<?> list, Predicate predicate, Visitor visitor) {
+        BigDecimal count = new BigDecimal(count(list, predicate, visitor).toString());
         return count.divide(BigDecimal.valueOf(list.size()), 3, RoundingMode.DOWN);
     }
 
-    private Object count(
-        List<?> list,
-        RuleFlowLanguageParser.ExprContext predicate,
-        Map<String, List<?>> lists,
-        Object root) {
+    private Object count(List<?> list, Predicate predicate, Visitor visitor) {
         if (predicate == null) {
             return BigDecimal.valueOf(list.size());
         } else {
-            long count = list.stream()
-                .filter(data -> {
-                    try {
-                        return (Boolean) evalPredicate(data, root, lists, predicate);
-                    } catch (TypeComparisonException | NullPointerException e) { return false; }
-                })
-                .count();
-            return BigDecimal.valueOf(count);
+            return BigDecimal.valueOf(new Items(list, predicate, visitor).count());
         }
     }
 
-    private Object evalPredicate(Object data, Object root, Map<String, List<?>> lists, RuleFlowLanguageParser.ExprContext ctx) {
-        // Handle direct value comparisons in predicates
-        if (ctx instanceof RuleFlowLanguageParser.ValueContext) {
-            // For direct value comparisons like {'blocked'}, compare the list item directly with the predicate value
-            Object predicateValue = new Visitor((Map<String, Object>) root, lists, (Map<String, Object>) root).visit(ctx);
-            return compareValues(data, predicateValue);
-        } else {
-            // Inject "it" so `it.field` expressions resolve to the current item
-            java.util.Map<String, Object> predicateData = new java.util.LinkedHashMap<>((Map<String, Object>) data);
-            predicateData.put("it", data);
-            return new Visitor(predicateData, lists, (Map<String, Object>) root).visit(ctx);
-        }
-    }
-
-    private boolean compareValues(Object data, Object predicateValue) {
+    private static boolean compareValues(Object data, Object predicateValue) {
         if (data == null && predicateValue == null) {
             return true;
         }
         if (data == null || predicateValue == null) {
             return false;
         }
-        
+
         // Handle numeric comparisons (Integer, Long, Double, etc.)
         if (data instanceof Number && predicateValue instanceof Number) {
             return ((Number) data).doubleValue() == ((Number) predicateValue).doubleValue();
         }
-        
+
         // Handle other types with standard equals
         return data.equals(predicateValue);
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates the predicate against the items of one list. A single {@link ItemFrame} and
+     * visitor are rebound to each item, so items are neither copied nor given their own visitor.
+     */
+    static final class Items {
+        private final List<?> list;
+        private final Predicate predicate;
+        private final Visitor parent;
+        private ItemFrame frame;
+        private Visitor itemVisitor;
+        private Object predicateValue;
+        private boolean predicateValueResolved;
+
+        Items(List<?> list, Predicate predicate, Visitor parent) {
+            this.list = list;
+            this.predicate = predicate;
+            this.parent = parent;
+        }
+
+        boolean anyMatch() {
+            for (Object data : list) {
+                if (matches(data)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean allMatch() {
+            for (Object data : list) {
+                if (!matches(data)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long count() {
+            long count = 0;
+            for (Object data : list) {
+                if (matches(data)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // Items whose comparison fails count as not matching
+        boolean matches(Object data) {
+            try {
+                return (Boolean) evaluate(data);
+            } catch (TypeComparisonException | NullPointerException e) {
+                return false;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Object evaluate(Object data) {
+            if (predicate == null) {
+                // `.any()` and friends without a predicate never match an item
+                return false;
+            }
+            if (predicate.isValue()) {
+                // Direct value predicates like {'blocked'} do not depend on the item, so they are evaluated once
+                if (!predicateValueResolved) {
+                    Map<String, Object> root = (Map<String, Object>) parent.getRoot();
+                    predicateValue = new Visitor(root, parent.getListIndex(), root, Map.of())
+                        .evaluate(predicate.getExpr());
+                    predicateValueResolved = true;
+                }
+                return compareValues(data, predicateValue);
+            }
+            if (frame == null) {
+                frame = new ItemFrame();
+                itemVisitor = new Visitor(frame, parent.getListIndex(), parent.getRoot(), Map.of());
+            }
+            // Inject "it" so `it.field` expressions resolve to the current item
+            frame.bind((Map<String, Object>) data, data);
+            return itemVisitor.evaluate(predicate.getExpr());
+        }
+    }
+
+    static class Predicate {
+        private final boolean value;
+        private final CompiledExpr expr;
+
+        Predicate(boolean value, CompiledExpr expr) {
+            this.value = value;
+            this.expr = expr;
+        }
+
+        /**
+         * Returns the predicate of {@code ctx}, or {@code null} when it has none.
+         */
+        static Predicate compile(RuleFlowLanguageParser.AggregationContext ctx, ExprCompiler compiler) {
+            return ctx.predicate == null ? null : new Predicate(
+                ctx.predicate instanceof RuleFlowLanguageParser.ValueContext,
+                compiler.rootScope().compile(ctx.predicate));
+        }
+
+        boolean isValue() {
+            return value;
+        }
+
+        CompiledExpr getExpr() {
+            return expr;
+        }
+    }
+}
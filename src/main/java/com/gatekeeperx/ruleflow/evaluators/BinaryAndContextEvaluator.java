@@ -1,7 +1,8 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,9 +10,13 @@ public class BinaryAndContextEvaluator implements ContextEvaluator<RuleFlowLangu
     private static final Logger logger = LoggerFactory.getLogger(BinaryAndContextEvaluator.class);
 
     @Override
-    public Boolean evaluate(RuleFlowLanguageParser.BinaryAndContext ctx, Visitor visitor) {
-        boolean b = (Boolean) visitor.visit(ctx.left) && (Boolean) visitor.visit(ctx.right);
-        logger.debug("BinaryAnd: left={}, right={}, result={}", ctx.left, ctx.right, b);
-        return b;
+    public CompiledExpr compile(RuleFlowLanguageParser.BinaryAndContext ctx, ExprCompiler compiler) {
+        CompiledExpr left = compiler.compile(ctx.left);
+        CompiledExpr right = compiler.compile(ctx.right);
+        return visitor -> {
+            boolean b = (Boolean) left.evaluate(visitor) && (Boolean) right.evaluate(visitor);
+            logger.debug("BinaryAnd: result={}", b);
+            return b;
+        };
     }
-}
\ No newline at end of file
+}
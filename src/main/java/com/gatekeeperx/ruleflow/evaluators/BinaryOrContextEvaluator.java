@@ -1,7 +1,8 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,9 +10,13 @@ public class BinaryOrContextEvaluator implements ContextEvaluator<RuleFlowLangua
     private static final Logger logger = LoggerFactory.getLogger(BinaryOrContextEvaluator.class);
 
     @Override
-    public Boolean evaluate(RuleFlowLanguageParser.BinaryOrContext ctx, Visitor visitor) {
-        boolean res = (Boolean) visitor.visit(ctx.left) || (Boolean) visitor.visit(ctx.right);
-        logger.debug("BinaryOr: left={}, right={} result={}", visitor.visit(ctx.left), visitor.visit(ctx.right), res);
-        return res;
+    public CompiledExpr compile(RuleFlowLanguageParser.BinaryOrContext ctx, ExprCompiler compiler) {
+        CompiledExpr left = compiler.compile(ctx.left);
+        CompiledExpr right = compiler.compile(ctx.right);
+        return visitor -> {
+            boolean res = (Boolean) left.evaluate(visitor) || (Boolean) right.evaluate(visitor);
+            logger.debug("BinaryOr: result={}", res);
+            return res;
+        };
     }
-}
\ No newline at end of file
+}
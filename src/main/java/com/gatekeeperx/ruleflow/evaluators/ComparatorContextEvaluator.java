@@ -1,10 +1,10 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.TypeComparisonException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
-import org.antlr.v4.runtime.Token;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,46 +13,94 @@ import java.util.function.BiFunction;
 public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.ComparatorContext> {
     private static final Logger logger = LoggerFactory.getLogger(ComparatorContextEvaluator.class);
 
-    public Boolean evaluate(RuleFlowLanguageParser.ComparatorContext ctx, Visitor visitor) throws PropertyNotFoundException {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
+    @Override
+    public CompiledExpr compile(RuleFlowLanguageParser.ComparatorContext ctx, ExprCompiler compiler) {
+        CompiledExpr leftExpr = compiler.compile(ctx.left);
+        CompiledExpr rightExpr = compiler.compile(ctx.right);
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
+        if (ConstantExpr.allConstant(leftExpr, rightExpr)) {
+            try {
+                return new ConstantExpr(compare(op, opText,
+                    ((ConstantExpr) leftExpr).getValue(), ((ConstantExpr) rightExpr).getValue()));
+            } catch (RuntimeException e) {
+                // Mismatched literal types; report it when the rule is evaluated
+            }
+        }
+        return visitor -> compare(op, opText, leftExpr.evaluate(visitor), rightExpr.evaluate(visitor));
+    }
+
+    private Boolean compare(int op, String opText, Object left, Object right) {
         Boolean result = false;
         if (left == null || right == null) {
-            result = compareNull(ctx.op, left, right);
+            result = compareNull(op, left, right);
         } else if (left instanceof Number && right instanceof Number) {
-            result = compareNumbers(ctx.op, left, right);
+            result = compareNumbers(op, opText, left, right);
         } else if (left instanceof String && right instanceof String) {
             // Try numeric comparison first if both strings look like numbers
             Double leftNum = tryParseNumber((String) left);
             Double rightNum = tryParseNumber((String) right);
             if (leftNum != null && rightNum != null) {
-                result = compareNumbers(ctx.op, leftNum, rightNum);
+                result = compareNumbers(op, opText, leftNum, rightNum);
             } else {
-                result = compareStrings(ctx.op, (String) left, (String) right);
+                result = compareStrings(op, opText, (String) left, (String) right);
             }
         } else if (left instanceof Boolean && right instanceof Boolean) {
-            result = compareBooleans(ctx.op, (Boolean) left, (Boolean) right);
+            result = compareBooleans(op, opText, (Boolean) left, (Boolean) right);
         } else if (left instanceof java.time.ZonedDateTime && right instanceof java.time.ZonedDateTime) {
-            result = compareZonedDateTimes(ctx.op, (java.time.ZonedDateTime) left, (java.time.ZonedDateTime) right);
+            result = compareZonedDateTimes(op, opText, (java.time.ZonedDateTime) left, (java.time.ZonedDateTime) right);
         } else if (isStringNumberComparison(left, right)) {
             // Handle mixed String-Number comparisons by converting String to Number
-            result = compareMixedStringNumber(ctx.op, left, right);
+            result = compareMixedStringNumber(op, opText, left, right);
         } else if (left instanceof Comparable<?> && right instanceof Comparable<?>) {
-            result = compareComparables(ctx.op, (Comparable<?>) left, (Comparable<?>) right);
+            result = compareComparables(op, opText, (Comparable<?>) left, (Comparable<?>) right);
         } else {
             throw new TypeComparisonException("Comparisons between different dataTypes not supported");
         }
 
-        logger.debug("Comparator: left={}, right={}, op={}, result={}", left, right, ctx.op.getText(), result);
+        logger.debug("Comparator: left={}, right={}, op={}, result={}", left, right, opText, result);
         return result;
     }
     
+    /**
+     * A key under which two non-null values are equal exactly when {@code ==} (or {@code =}, with
+     * {@code ignoreCase}) finds them equal, so that equality can be answered by a hash lookup.
+     * Numbers and numeric strings are keyed by their double value, other strings by themselves
+     * (case folded with {@code ignoreCase}) and booleans by themselves. Returns {@code null} for
+     * values whose equality has no such key: other types, and with {@code ignoreCase} infinite or
+     * NaN numbers, which also equal non-numeric strings such as {@code "nan"}.
+     */
+    static Object equalityKey(Object value, boolean ignoreCase) {
+        Double number = null;
+        if (value instanceof Number) {
+            number = ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            number = tryParseNumber((String) value);
+            if (number == null) {
+                return ignoreCase ? foldCase((String) value) : value;
+            }
+        } else if (value instanceof Boolean) {
+            return value;
+        }
+        if (number == null || ignoreCase && (number.isNaN() || number.isInfinite())) {
+            return null;
+        }
+        return number;
+    }
+
+    // Equal for two strings exactly when String.equalsIgnoreCase is
+    private static String foldCase(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        return folded.toString();
+    }
+
     private boolean isStringNumberComparison(Object left, Object right) {
         return (left instanceof String && right instanceof Number) ||
                (left instanceof Number && right instanceof String);
     }
     
-    private Boolean compareMixedStringNumber(Token operator, Object left, Object right) {
+    private Boolean compareMixedStringNumber(int operator, String operatorText, Object left, Object right) {
         Double leftNum;
         Double rightNum;
         
@@ -66,17 +114,17 @@ public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLang
         
         if (leftNum == null || rightNum == null) {
             // If parsing fails, fall back to string comparison for equality checks
-            if (operator.getType() == RuleFlowLanguageParser.EQ || 
-                operator.getType() == RuleFlowLanguageParser.NOT_EQ) {
-                return compareStrings(operator, left.toString(), right.toString());
+            if (operator == RuleFlowLanguageParser.EQ || 
+                operator == RuleFlowLanguageParser.NOT_EQ) {
+                return compareStrings(operator, operatorText, left.toString(), right.toString());
             }
             throw new TypeComparisonException("Cannot compare non-numeric string with number: " + left + " vs " + right);
         }
         
-        return compareNumbers(operator, leftNum, rightNum);
+        return compareNumbers(operator, operatorText, leftNum, rightNum);
     }
     
-    private Double tryParseNumber(String value) {
+    private static Double tryParseNumber(String value) {
         if (value == null || value.isEmpty()) {
             return null;
         }
@@ -87,8 +135,8 @@ public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLang
         }
     }
 
-    private Boolean compareNull(Token operator, Object left, Object right) {
-        return switch (operator.getType()) {
+    private Boolean compareNull(int operator, Object left, Object right) {
+        return switch (operator) {
             case RuleFlowLanguageParser.EQ -> left == right;
             case RuleFlowLanguageParser.EQ_IC -> (left == null ? "" : left.toString()).equalsIgnoreCase(right == null ? "" : right.toString());
             case RuleFlowLanguageParser.NOT_EQ -> left != right;
@@ -97,29 +145,29 @@ public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLang
     }
 
     // Number comparison using BigDecimal for consistent numeric comparison
-    private Boolean compareNumbers(Token operator, Object left, Object right) {
+    private Boolean compareNumbers(int operator, String operatorText, Object left, Object right) {
         // Convert both to Double for comparison
         Double leftNum = ((Number) left).doubleValue();
         Double rightNum = ((Number) right).doubleValue();
-        return compareValues(operator, Double::compareTo, leftNum, rightNum);
+        return compareValues(operator, operatorText, Double::compareTo, leftNum, rightNum);
     }
 
-    private Boolean compareStrings(Token operator, String left, String right) {
-        return compareValues(operator, String::compareTo, left, right);
+    private Boolean compareStrings(int operator, String operatorText, String left, String right) {
+        return compareValues(operator, operatorText, String::compareTo, left, right);
     }
 
-    private Boolean compareBooleans(Token operator, Boolean left, Boolean right) {
-        return compareValues(operator, Boolean::compareTo, left, right);
+    private Boolean compareBooleans(int operator, String operatorText, Boolean left, Boolean right) {
+        return compareValues(operator, operatorText, Boolean::compareTo, left, right);
     }
 
     @SuppressWarnings("unchecked")
-    private Boolean compareComparables(Token operator, Comparable<?> left, Comparable<?> right) {
-        return compareValues(operator, Comparable::compareTo, (Comparable<Object>) left, (Comparable<Object>) right);
+    private Boolean compareComparables(int operator, String operatorText, Comparable<?> left, Comparable<?> right) {
+        return compareValues(operator, operatorText, Comparable::compareTo, (Comparable<Object>) left, (Comparable<Object>) right);
     }
 
-    private <T> Boolean compareValues(Token operator, BiFunction<T, T, Integer> compareFunc, T left, T right) {
+    private <T> Boolean compareValues(int operator, String operatorText, BiFunction<T, T, Integer> compareFunc, T left, T right) {
         int comparisonResult = compareFunc.apply(left, right);
-        return switch (operator.getType()) {
+        return switch (operator) {
             case RuleFlowLanguageParser.EQ -> comparisonResult == 0;
             case RuleFlowLanguageParser.EQ_IC -> left.toString().equalsIgnoreCase(right.toString());
             case RuleFlowLanguageParser.NOT_EQ -> comparisonResult != 0;
@@ -127,13 +175,13 @@ public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLang
             case RuleFlowLanguageParser.LT_EQ -> comparisonResult <= 0;
             case RuleFlowLanguageParser.GT -> comparisonResult > 0;
             case RuleFlowLanguageParser.GT_EQ -> comparisonResult >= 0;
-            default -> throw new RuntimeException("Invalid condition " + operator.getText());
+            default -> throw new RuntimeException("Invalid condition " + operatorText);
         };
     }
 
-    private Boolean compareZonedDateTimes(Token operator, java.time.ZonedDateTime left, java.time.ZonedDateTime right) {
+    private Boolean compareZonedDateTimes(int operator, String operatorText, java.time.ZonedDateTime left, java.time.ZonedDateTime right) {
         int comparisonResult = left.compareTo(right);
-        return switch (operator.getType()) {
+        return switch (operator) {
             case RuleFlowLanguageParser.EQ -> comparisonResult == 0;
             case RuleFlowLanguageParser.EQ_IC -> comparisonResult == 0;
             case RuleFlowLanguageParser.NOT_EQ -> comparisonResult != 0;
@@ -141,7 +189,7 @@ public class ComparatorContextEvaluator implements ContextEvaluator<RuleFlowLang
             case RuleFlowLanguageParser.LT_EQ -> comparisonResult <= 0;
             case RuleFlowLanguageParser.GT -> comparisonResult > 0;
             case RuleFlowLanguageParser.GT_EQ -> comparisonResult >= 0;
-            default -> throw new RuntimeException("Invalid condition " + operator.getText());
+            default -> throw new RuntimeException("Invalid condition " + operatorText);
         };
     }
 }
\ No newline at end of file
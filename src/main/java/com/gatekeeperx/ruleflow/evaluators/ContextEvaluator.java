@@ -1,5 +1,7 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
 import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
 import com.gatekeeperx.ruleflow.visitors.Visitor;
@@ -7,9 +9,14 @@ import org.antlr.v4.runtime.ParserRuleContext;
 
 /**
  * Interface for context evaluators in the RuleFlow engine.
- * Implementations should provide logic for evaluating specific parse tree contexts.
+ * Implementations lower a specific parse tree context into a {@link CompiledExpr}
+ * once, when the workflow is built; the returned node holds the evaluation logic.
  */
 public interface ContextEvaluator<T extends ParserRuleContext> {
-    Object evaluate(T ctx, Visitor visitor)
-        throws PropertyNotFoundException, UnexpectedSymbolException;
-}
\ No newline at end of file
+    CompiledExpr compile(T ctx, ExprCompiler compiler);
+
+    default Object evaluate(T ctx, Visitor visitor)
+        throws PropertyNotFoundException, UnexpectedSymbolException {
+        return compile(ctx, ExprCompiler.root()).evaluate(visitor);
+    }
+}
@@ -1,10 +1,11 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
+import com.gatekeeperx.ruleflow.jfr.CustomFunctionCalled;
 import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -15,40 +16,54 @@ public class CustomFunctionCallContextEvaluator
         implements ContextEvaluator<RuleFlowLanguageParser.CustomFunctionCallContext> {
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.CustomFunctionCallContext ctx, Visitor visitor)
-            throws PropertyNotFoundException, UnexpectedSymbolException {
+    public CompiledExpr compile(RuleFlowLanguageParser.CustomFunctionCallContext ctx, ExprCompiler compiler) {
+        String functionName = ctx.functionName.getText();
 
-        String functionName = ctx.ID().getText();
-        RuleflowFunction function = visitor.getFunctions().get(functionName);
-        if (function == null) {
-            throw new UnexpectedSymbolException("Custom function '" + functionName + "' is not defined");
-        }
-
-        Map<String, Object> args = new LinkedHashMap<>();
+        List<String> argNames = new ArrayList<>();
+        List<CompiledExpr> argValues = new ArrayList<>();
         int positionalIndex = 0;
         for (RuleFlowLanguageParser.FuncCallArgContext argCtx : ctx.funcCallArg()) {
             if (argCtx.argName != null) {
-                args.put(argCtx.argName.getText(), visitor.visit(argCtx.argValue));
+                argNames.add(argCtx.argName.getText());
             } else {
-                args.put(String.valueOf(positionalIndex++), visitor.visit(argCtx.argValue));
+                argNames.add(String.valueOf(positionalIndex++));
             }
+            argValues.add(compiler.compile(argCtx.argValue));
         }
 
-        List<Object> cacheKey = new ArrayList<>();
-        cacheKey.add(functionName);
-        cacheKey.add(args);
+        return visitor -> {
+            RuleflowFunction function = visitor.getFunctions().get(functionName);
+            if (function == null) {
+                throw new UnexpectedSymbolException("Custom function '" + functionName + "' is not defined");
+            }
 
-        Map<List<Object>, Object> cache = visitor.getFunctionCallCache();
-        if (cache.containsKey(cacheKey)) {
-            return cache.get(cacheKey);
-        }
+            Map<String, Object> args = new LinkedHashMap<>();
+            for (int i = 0; i < argValues.size(); i++) {
+                args.put(argNames.get(i), argValues.get(i).evaluate(visitor));
+            }
 
-        try {
-            Object result = function.apply(args);
-            cache.put(cacheKey, result);
-            return result;
-        } catch (Exception e) {
-            throw new UnexpectedSymbolException("Custom function '" + functionName + "' failed: " + e.getMessage());
-        }
+            List<Object> cacheKey = new ArrayList<>();
+            cacheKey.add(functionName);
+            cacheKey.add(args);
+
+            CustomFunctionCalled event = new CustomFunctionCalled();
+            event.begin();
+            Map<List<Object>, Object> cache = visitor.getFunctionCallCache();
+            if (cache.containsKey(cacheKey)) {
+                Object cached = cache.get(cacheKey);
+                event.end(functionName, true);
+                return cached;
+            }
+
+            try {
+                Object result = function.apply(args);
+                cache.put(cacheKey, result);
+                return result;
+            } catch (Exception e) {
+                throw new UnexpectedSymbolException("Custom function '" + functionName + "' failed: " + e.getMessage());
+            } finally {
+                event.end(functionName, false);
+            }
+        };
     }
 }
@@ -2,7 +2,8 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DateDiffContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
@@ -13,30 +14,39 @@ import org.slf4j.LoggerFactory;
 public class DateDiffContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.DateDiffContext> {
     private static final Logger logger = LoggerFactory.getLogger(DateDiffContextEvaluator.class);
     @Override
-    public Object evaluate(DateDiffContext ctx, Visitor visitor) {
-        ZonedDateTime left = (ZonedDateTime) visitor.visit(ctx.left);
-        ZonedDateTime right = (ZonedDateTime) visitor.visit(ctx.right);
-
-        if (left == null || right == null) {
-            logger.debug("DateDiff: left={}, right={}", left, right);
-            return null;
-        }
-
-        long result;
-
+    public CompiledExpr compile(DateDiffContext ctx, ExprCompiler compiler) {
+        CompiledExpr leftExpr = compiler.compile(ctx.left);
+        CompiledExpr rightExpr = compiler.compile(ctx.right);
+        ChronoUnit unit;
         if (ctx.MINUTE() != null) {
-            result = Duration.between(left, right).toMinutes();
+            unit = ChronoUnit.MINUTES;
         } else if (ctx.HOUR() != null) {
-            result = Duration.between(left, right).toHours();
+            unit = ChronoUnit.HOURS;
         } else if (ctx.DAY() != null) {
-            result = Duration.between(left, right.truncatedTo(ChronoUnit.DAYS)).toDays();
+            unit = ChronoUnit.DAYS;
         } else {
             throw new RuntimeException("Interval not supported in " + ctx.getText());
         }
 
-        long abs = Math.abs(result);
+        return visitor -> {
+            ZonedDateTime left = (ZonedDateTime) leftExpr.evaluate(visitor);
+            ZonedDateTime right = (ZonedDateTime) rightExpr.evaluate(visitor);
+
+            if (left == null || right == null) {
+                logger.debug("DateDiff: left={}, right={}", left, right);
+                return null;
+            }
+
+            long result = switch (unit) {
+                case MINUTES -> Duration.between(left, right).toMinutes();
+                case HOURS -> Duration.between(left, right).toHours();
+                default -> Duration.between(left, right.truncatedTo(ChronoUnit.DAYS)).toDays();
+            };
+
+            long abs = Math.abs(result);
 
-        logger.debug("DateDiff: left={}, right={}, result={}", left, right, abs);
-        return abs;
+            logger.debug("DateDiff: left={}, right={}, result={}", left, right, abs);
+            return abs;
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,21 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DateOperationContext;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
 
 public class DateOperationContextEvaluator implements ContextEvaluator<com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DateOperationContext> {
 
   @Override
-  public Object evaluate(DateOperationContext ctx, Visitor visitor)
-      throws PropertyNotFoundException, UnexpectedSymbolException {
+  public CompiledExpr compile(DateOperationContext ctx, ExprCompiler compiler) {
      if (ctx.dateExpr() != null) {
-         return visitor.visit(ctx.dateExpr());
+         return compiler.compile(ctx.dateExpr());
      } else {
-         throw new UnexpectedSymbolException("Unexpected symbol " + ctx);
+         String text = ctx.toString();
+         return visitor -> {
+             throw new UnexpectedSymbolException("Unexpected symbol " + text);
+         };
      }
   }
 }
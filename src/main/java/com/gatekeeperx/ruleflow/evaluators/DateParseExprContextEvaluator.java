@@ -2,27 +2,31 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DateParseExprContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import java.time.ZonedDateTime;
 
 public class DateParseExprContextEvaluator implements ContextEvaluator<DateParseExprContext> {
-    public Object evaluate(RuleFlowLanguageParser.DateParseExprContext ctx, Visitor visitor) {
+    public CompiledExpr compile(RuleFlowLanguageParser.DateParseExprContext ctx, ExprCompiler compiler) {
         if(ctx.dateParse().K_DATE()!= null) {
             if(ctx.dateParse().dateValue().K_NOW() != null) {
-                return ZonedDateTime.now().toLocalDate();
+                return visitor -> ZonedDateTime.now().toLocalDate();
             } else {
-                Object value = visitor.visit(ctx.dateParse().dateValue());
-                return ZonedDateTime.parse(value.toString()).toLocalDate();
+                CompiledExpr value = compiler.compile(ctx.dateParse().dateValue());
+                return visitor -> ZonedDateTime.parse(value.evaluate(visitor).toString()).toLocalDate();
             }
         } else if(ctx.dateParse().K_DATETIME()!= null) {
             if(ctx.dateParse().dateValue().K_NOW() != null) {
-                return ZonedDateTime.now();
+                return visitor -> ZonedDateTime.now();
             } else {
-                Object value = visitor.visit(ctx.dateParse().dateValue());
-                return ZonedDateTime.parse(value.toString());
+                CompiledExpr value = compiler.compile(ctx.dateParse().dateValue());
+                return visitor -> ZonedDateTime.parse(value.evaluate(visitor).toString());
             }
         } else {
-            throw new IllegalArgumentException("Date not supported: " + ctx.getText());
+            String text = ctx.getText();
+            return visitor -> {
+                throw new IllegalArgumentException("Date not supported: " + text);
+            };
         }
     }
-} 
\ No newline at end of file
+} 
@@ -1,7 +1,8 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import java.time.ZonedDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,20 +10,23 @@ import org.slf4j.LoggerFactory;
 public class DateSubtractContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.DateSubtractContext> {
     private static final Logger logger = LoggerFactory.getLogger(DateSubtractContextEvaluator.class);
     @Override
-    public Object evaluate(RuleFlowLanguageParser.DateSubtractContext ctx, Visitor visitor) {
-        java.time.ZonedDateTime zdt = (ZonedDateTime) new DateValueContextEvaluator().evaluate(ctx.dateValue(), visitor);
-        long amount = ((Double) visitor.visit(ctx.amount)).longValue();
-        Object unitObj = ctx.unit.getText();
-        String unit = unitObj.toString();
-        switch (unit.toLowerCase()) {
-            case "day":
-                return zdt.minusDays(amount);
-            case "hour":
-                return zdt.minusHours(amount);
-            case "minute":
-                return zdt.minusMinutes(amount);
-            default:
-                throw new IllegalArgumentException("Unsupported time unit: " + unit);
-        }
+    public CompiledExpr compile(RuleFlowLanguageParser.DateSubtractContext ctx, ExprCompiler compiler) {
+        CompiledExpr date = compiler.compile(ctx.dateValue());
+        CompiledExpr amountExpr = compiler.compile(ctx.amount);
+        String unit = ctx.unit.getText();
+        return visitor -> {
+            java.time.ZonedDateTime zdt = (ZonedDateTime) date.evaluate(visitor);
+            long amount = ((Double) amountExpr.evaluate(visitor)).longValue();
+            switch (unit.toLowerCase()) {
+                case "day":
+                    return zdt.minusDays(amount);
+                case "hour":
+                    return zdt.minusHours(amount);
+                case "minute":
+                    return zdt.minusMinutes(amount);
+                default:
+                    throw new IllegalArgumentException("Unsupported time unit: " + unit);
+            }
+        };
     }
-} 
\ No newline at end of file
+} 
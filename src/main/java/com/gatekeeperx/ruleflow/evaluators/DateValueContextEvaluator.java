@@ -2,7 +2,9 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DateValueContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.utils.DateTimeUtils;
 import java.time.ZonedDateTime;
 import org.slf4j.Logger;
@@ -10,19 +12,32 @@ import org.slf4j.LoggerFactory;
 
 public class DateValueContextEvaluator implements ContextEvaluator<DateValueContext> {
     private static final Logger logger = LoggerFactory.getLogger(DateValueContextEvaluator.class);
-    public Object evaluate(RuleFlowLanguageParser.DateValueContext ctx, Visitor visitor) {
+    public CompiledExpr compile(RuleFlowLanguageParser.DateValueContext ctx, ExprCompiler compiler) {
         if(ctx.string_literal() != null) {
-            ZonedDateTime zonedDateTime = DateTimeUtils.toZonedDateTime(
-                ctx.string_literal().getText().replace("'", ""));
-            logger.debug("DateValue: {}", zonedDateTime);
-            return zonedDateTime;
+            String literal = ctx.string_literal().getText().replace("'", "");
+            try {
+                return new ConstantExpr(DateTimeUtils.toZonedDateTime(literal));
+            } catch (IllegalArgumentException e) {
+                // Invalid literal; report it when the rule is evaluated
+            }
+            return visitor -> {
+                ZonedDateTime zonedDateTime = DateTimeUtils.toZonedDateTime(literal);
+                logger.debug("DateValue: {}", zonedDateTime);
+                return zonedDateTime;
+            };
         } else if(ctx.validProperty() != null) {
-            Object value = visitor.visit(ctx.validProperty());
-            ZonedDateTime zonedDateTime = DateTimeUtils.toZonedDateTime(value);
-            logger.debug("DateValue: {}", zonedDateTime);
-            return zonedDateTime;
+            CompiledExpr property = compiler.compile(ctx.validProperty());
+            return visitor -> {
+                Object value = property.evaluate(visitor);
+                ZonedDateTime zonedDateTime = DateTimeUtils.toZonedDateTime(value);
+                logger.debug("DateValue: {}", zonedDateTime);
+                return zonedDateTime;
+            };
         } else {
-            throw new IllegalArgumentException("Date not supported: " + ctx.getText());
+            String text = ctx.getText();
+            return visitor -> {
+                throw new IllegalArgumentException("Date not supported: " + text);
+            };
         }
     }
-} 
\ No newline at end of file
+} 
@@ -2,7 +2,8 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,22 +13,29 @@ public class DayOfWeekContextEvaluator implements ContextEvaluator<RuleFlowLangu
     private static final Logger logger = LoggerFactory.getLogger(DayOfWeekContextEvaluator.class);
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.DayOfWeekContext ctx, Visitor visitor) {
-        ZonedDateTime valLeft = (ZonedDateTime) new DateValueContextEvaluator().evaluate(ctx.dateValue(), visitor);
+    public CompiledExpr compile(RuleFlowLanguageParser.DayOfWeekContext ctx, ExprCompiler compiler) {
+        CompiledExpr dateValue = compiler.compile(ctx.dateValue());
+        String dateValueText = ctx.dateValue().getText();
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
 
-        if (valLeft == null) {
-            throw new IllegalArgumentException("Parameter value not supported: " + ctx.dateValue().getText());
-        }
+        return visitor -> {
+            ZonedDateTime valLeft = (ZonedDateTime) dateValue.evaluate(visitor);
 
-        Object result;
-        switch (ctx.op.getType()) {
-            case RuleFlowLanguageLexer.DAY_OF_WEEK:
-                result = valLeft.getDayOfWeek().toString();
-                break;
-            default:
-                throw new IllegalArgumentException("Operation not supported: " + ctx.op.getText());
-        }
-        logger.debug("DayOfWeek: dateValue={}, result={}", ctx.dateValue().getText(), result);
-        return result;
+            if (valLeft == null) {
+                throw new IllegalArgumentException("Parameter value not supported: " + dateValueText);
+            }
+
+            Object result;
+            switch (op) {
+                case RuleFlowLanguageLexer.DAY_OF_WEEK:
+                    result = valLeft.getDayOfWeek().toString();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operation not supported: " + opText);
+            }
+            logger.debug("DayOfWeek: dateValue={}, result={}", dateValueText, result);
+            return result;
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,184 +1,244 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
+import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.binding.PropertyKey;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
+import com.gatekeeperx.ruleflow.lists.StoredList;
 import com.gatekeeperx.ruleflow.visitors.Visitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public class EvalInListContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.EvalInListContext> {
     private static final Logger logger = LoggerFactory.getLogger(EvalInListContextEvaluator.class);
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.EvalInListContext ctx, Visitor visitor)
-        throws PropertyNotFoundException, UnexpectedSymbolException {
-        
+    public CompiledExpr compile(RuleFlowLanguageParser.EvalInListContext ctx, ExprCompiler compiler) {
         // Extract list name from string literal
         String listName = stripQuotes(ctx.listName.getText());
-        
-        // Get the list from visitor
-        List<?> list = visitor.getLists().get(listName);
-        if (list == null) {
-            logger.warn("List '{}' not found", listName);
-            return false;
-        }
+        // Properties in the predicate resolve 'elem'/'it' against the current item
+        CompiledExpr predicate = compiler.listScope().compile(ctx.predicate);
+        // Equalities on an item field that narrow the list through a field index before the predicate runs
+        List<EqualityProbe> probes = new ArrayList<>();
+        collectProbes(ctx.predicate, compiler, probes);
 
-        // Evaluate predicate for each item in the list
-        // Return true if any item matches the predicate
-        boolean result = list.stream().anyMatch(item -> {
-            try {
-                // Create a scoped visitor where the current item is the data context
-                // This allows elem.field1 to access field1 from the current item
-                ScopedVisitor scopedVisitor = new ScopedVisitor(item, visitor);
-                Object predicateResult = scopedVisitor.visit(ctx.predicate);
-                boolean match = predicateResult instanceof Boolean && (Boolean) predicateResult;
-                logger.debug("EvalInList predicate evaluation: item={}, result={}, match={}", item, predicateResult, match);
-                return match;
-            } catch (Exception e) {
-                logger.warn("Error evaluating predicate for list item {}: {}", item, e.getMessage(), e);
+        return visitor -> {
+            // Get the list from visitor
+            List<?> list = visitor.getLists().get(listName);
+            if (list == null) {
+                logger.warn("List '{}' not found", listName);
                 return false;
             }
-        });
 
-        logger.debug("EvalInList: listName={}, result={}", listName, result);
-        return result;
-    }
+            // Evaluate predicate for each item in the list
+            // Return true if any item matches the predicate
+            // One scoped visitor is moved from item to item, so items are never copied
+            ScopedVisitor scopedVisitor = new ScopedVisitor(visitor);
+            List<?> items = candidates(probes, listName, visitor);
+            if (items == null) {
+                items = list;
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("EvalInList: listName={}, {} of {} items match the indexed field", listName, items.size(), list.size());
+            }
+            boolean result = false;
+            for (Object item : items) {
+                try {
+                    scopedVisitor.enter(item);
+                    Object predicateResult = scopedVisitor.evaluate(predicate);
+                    boolean match = predicateResult instanceof Boolean && (Boolean) predicateResult;
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("EvalInList predicate evaluation: item={}, result={}, match={}", item, predicateResult, match);
+                    }
+                    if (match) {
+                        result = true;
+                        break;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Error evaluating predicate for list item {}: {}", item, e.getMessage(), e);
+                }
+            }
 
-    private String stripQuotes(String quotedString) {
-        if (quotedString.startsWith("'") && quotedString.endsWith("'")) {
-            return quotedString.substring(1, quotedString.length() - 1);
-        }
-        return quotedString;
+            logger.debug("EvalInList: listName={}, result={}", listName, result);
+            return result;
+        };
     }
 
     /**
-     * Scoped visitor that handles property access with 'elem.' prefix.
-     * When a property like 'elem.field1' is accessed, it resolves to 'field1' from the current list item.
+     * Compiles a property reference inside an {@code evalInList} predicate.
+     * When a property like 'elem.field1' is accessed, it resolves to 'field1' from the current list item;
+     * anything else is resolved by the enclosing scope.
      */
-    private static class ScopedVisitor extends Visitor {
-        private final Object currentItem;
-        private final Visitor parentVisitor;
+    public static CompiledExpr compileScopedProperty(RuleFlowLanguageParser.ValidPropertyContext ctx, ExprCompiler compiler) {
+        CompiledExpr parentProperty = compiler.getEnclosing().compile(ctx);
 
-        public ScopedVisitor(Object currentItem, Visitor parentVisitor) {
-            // Use the current item as data context, preserve root and lists from parent
-            super(
-                buildScopedData(currentItem),
-                parentVisitor.getLists(),
-                parentVisitor.getRoot(),
-                parentVisitor.getFunctions()
-            );
-            this.currentItem = currentItem;
-            this.parentVisitor = parentVisitor;
-        }
+        if (startsWithElem(ctx)) {
+            String[] tokens = getAllTokens(ctx);
+            String propertyPath = getPropertyPath(tokens, 1);
 
-        @SuppressWarnings("unchecked")
-        private static Map<String, Object> buildScopedData(Object currentItem) {
-            Map<String, Object> data = new java.util.LinkedHashMap<>(
-                currentItem instanceof Map ? (Map<String, Object>) currentItem : Map.of()
-            );
-            data.put("it", currentItem);  // alias — enables it.field inside evalInList predicates
-            return data;
-        }
-
-        @Override
-        public Object visit(org.antlr.v4.runtime.tree.ParseTree tree) {
-            // Intercept PropertyContext and ValidPropertyContext to handle 'elem' before normal dispatch
-            if (tree instanceof RuleFlowLanguageParser.PropertyContext) {
-                // PropertyContext wraps ValidPropertyContext, so extract and handle it
-                RuleFlowLanguageParser.PropertyContext propCtx = (RuleFlowLanguageParser.PropertyContext) tree;
-                return visitValidProperty(propCtx.validProperty());
-            }
-            if (tree instanceof RuleFlowLanguageParser.ValidPropertyContext) {
-                return visitValidProperty((RuleFlowLanguageParser.ValidPropertyContext) tree);
-            }
-            // For all other contexts, use super.visit() which will use this visitor's context
-            // but can access parent's lists and root through getLists() and getRoot()
-            return super.visit(tree);
-        }
-
-        @Override
-        public Object visitValidProperty(RuleFlowLanguageParser.ValidPropertyContext ctx) {
-            logger.debug("ScopedVisitor.visitValidProperty: property={}, K_ELEM.size={}, ID.size={}, nestedProperty={}, property={}, currentItem={}", 
-                ctx.getText(), ctx.K_ELEM().size(), ctx.ID().size(), ctx.nestedProperty != null, ctx.property != null, currentItem);
-            
-            // Check if this property starts with 'elem' keyword or 'it' alias
-            boolean startsWithElem = ctx.K_ELEM().size() > 0 && "elem".equals(ctx.K_ELEM(0).getText());
-            boolean startsWithIt = ctx.K_ELEM().isEmpty() && !ctx.ID().isEmpty() && "it".equals(ctx.ID(0).getText());
-            if (startsWithIt) startsWithElem = true;  // treat 'it' as alias for 'elem'
-            logger.debug("ScopedVisitor.visitValidProperty: startsWithElem={}", startsWithElem);
-            
-            if (startsWithElem) {
-                int tokenCount = getTokenCount(ctx);
-                logger.debug("ScopedVisitor.visitValidProperty: tokenCount={}", tokenCount);
-                
-                // If just 'elem' (single token), return the current item itself
-                if (tokenCount == 1) {
-                    logger.debug("ScopedVisitor: 'elem' refers to current item: {}", currentItem);
-                    return currentItem;
-                }
-                
-                // Handle 'elem.field1' or 'elem.field1.field2' patterns
-                // Skip the first 'elem' token and resolve the rest from the current item
+            // If just 'elem' (single token), return the current item itself
+            if (tokens.length == 1) {
+                return visitor -> ((ScopedVisitor) visitor).getCurrentItem();
+            }
+
+            // Handle 'elem.field1' or 'elem.field1.field2' patterns
+            // Skip the first 'elem' token and resolve the rest from the current item
+            ElemPath path = new ElemPath(tokens, propertyPath);
+            return visitor -> {
+                Object currentItem = ((ScopedVisitor) visitor).getCurrentItem();
                 if (currentItem instanceof Map) {
-                    Map<String, ?> itemMap = (Map<String, ?>) currentItem;
-                    Object result = resolveNestedProperty(ctx, itemMap, 1); // Start from index 1 (skip 'elem')
+                    Object result = path.resolve((Map<String, ?>) currentItem);
                     logger.debug("ScopedVisitor resolved nested property elem.*: {}", result);
                     return result;
                 } else {
-                    throw new PropertyNotFoundException("Property 'elem." + getPropertyPath(ctx, 1) + "' cannot be found - item is not a map");
+                    throw path.notMap;
                 }
-            }
-            
-            // For simple properties (not starting with 'elem'), first try current item, then fall back to parent
-            if (ctx.property != null && currentItem instanceof Map) {
+            };
+        }
+
+        // For simple properties (not starting with 'elem'), first try current item, then fall back to parent
+        boolean simple = ctx.property != null;
+        String propertyName = getFirstTokenText(ctx).intern();
+        return visitor -> {
+            ScopedVisitor scopedVisitor = (ScopedVisitor) visitor;
+            Object currentItem = scopedVisitor.getCurrentItem();
+            if (simple && currentItem instanceof Map) {
                 Map<String, ?> itemMap = (Map<String, ?>) currentItem;
-                String propertyName = getFirstTokenText(ctx);
-                if (itemMap.containsKey(propertyName)) {
-                    Object result = itemMap.get(propertyName);
+                Object result = itemMap.get(propertyName);
+                if (result != null || itemMap.containsKey(propertyName)) {
                     logger.debug("ScopedVisitor resolved simple property from item: {}={}", propertyName, result);
                     return result;
                 }
             }
-            
+
             // Fall back to parent visitor's property resolution
-            logger.debug("ScopedVisitor falling back to parent visitor for property: {}", ctx.getText());
-            return parentVisitor.visit(ctx);
+            return scopedVisitor.getParentVisitor().evaluate(parentProperty);
+        };
+    }
+
+    /**
+     * Collects the {@code elem.field == value} conjuncts of a predicate whose value does not
+     * depend on the item. Every item matching the predicate also matches each of them.
+     */
+    private static void collectProbes(RuleFlowLanguageParser.ExprContext expr, ExprCompiler compiler,
+                                      List<EqualityProbe> probes) {
+        if (expr instanceof RuleFlowLanguageParser.ParenthesisContext parenthesis) {
+            collectProbes(parenthesis.expr(), compiler, probes);
+        } else if (expr instanceof RuleFlowLanguageParser.BinaryAndContext and) {
+            collectProbes(and.left, compiler, probes);
+            collectProbes(and.right, compiler, probes);
+        } else if (expr instanceof RuleFlowLanguageParser.ComparatorContext comparator
+            && (comparator.op.getType() == RuleFlowLanguageLexer.EQ || comparator.op.getType() == RuleFlowLanguageLexer.EQ_IC)) {
+            boolean ignoreCase = comparator.op.getType() == RuleFlowLanguageLexer.EQ_IC;
+            EqualityProbe probe = EqualityProbe.of(comparator.left, comparator.right, ignoreCase, compiler);
+            if (probe == null) {
+                probe = EqualityProbe.of(comparator.right, comparator.left, ignoreCase, compiler);
+            }
+            if (probe != null) {
+                probes.add(probe);
+            }
+        }
+    }
+
+    /**
+     * The items of the list that can match the predicate, from the first probe that can answer,
+     * or {@code null} when every item has to be evaluated.
+     */
+    private static List<?> candidates(List<EqualityProbe> probes, String listName, Visitor visitor) {
+        if (probes.isEmpty()) {
+            return null;
+        }
+        StoredList storedList = visitor.getListIndex().get(listName);
+        if (storedList == null || !storedList.isIndexed()) {
+            // A list passed for one call is scanned, as indexing it would cost more
+            return null;
         }
+        for (EqualityProbe probe : probes) {
+            List<?> candidates = probe.candidates(storedList, visitor);
+            if (candidates != null) {
+                return candidates;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWithElem(RuleFlowLanguageParser.ValidPropertyContext ctx) {
+        // Check if this property starts with 'elem' keyword or 'it' alias
+        boolean hasElem = ctx.propertyName().stream().anyMatch(name -> name.K_ELEM() != null);
+        boolean startsWithElem = hasElem && "elem".equals(getFirstTokenText(ctx));
+        boolean startsWithIt = !hasElem && "it".equals(getFirstTokenText(ctx));
+        return startsWithElem || startsWithIt;  // treat 'it' as alias for 'elem'
+    }
+
+    private String stripQuotes(String quotedString) {
+        if (quotedString.startsWith("'") && quotedString.endsWith("'")) {
+            return quotedString.substring(1, quotedString.length() - 1);
+        }
+        return quotedString;
+    }
+
+    private static String getFirstTokenText(RuleFlowLanguageParser.ValidPropertyContext ctx) {
+        String[] tokens = getAllTokens(ctx);
+        return tokens.length > 0 ? tokens[0] : "";
+    }
 
-        private String getFirstTokenText(RuleFlowLanguageParser.ValidPropertyContext ctx) {
-            // Check K_ELEM first (since it's more specific), then ID
-            if (ctx.K_ELEM().size() > 0) {
-                return ctx.K_ELEM(0).getText();
-            } else if (ctx.ID().size() > 0) {
-                return ctx.ID(0).getText();
+    private static String[] getAllTokens(RuleFlowLanguageParser.ValidPropertyContext ctx) {
+        // For elem.field1, we have: K_ELEM("elem") at index 0, ID("field1") at index 1
+        return ValidPropertyContextEvaluator.pathTokens(ctx);
+    }
+
+    private static String getPropertyPath(String[] allTokens, int startIndex) {
+        StringBuilder path = new StringBuilder();
+        for (int i = startIndex; i < allTokens.length; i++) {
+            if (i > startIndex) {
+                path.append(".");
             }
-            return "";
+            path.append(allTokens[i]);
         }
+        return path.toString();
+    }
 
-        private int getTokenCount(RuleFlowLanguageParser.ValidPropertyContext ctx) {
-            return ctx.ID().size() + ctx.K_ELEM().size();
+    /**
+     * An {@code elem.}/{@code it.} path below the current item, with its keys and the
+     * exceptions for each way it can be missing resolved when the predicate is compiled.
+     */
+    private static final class ElemPath {
+        private final PropertyKey[] keys;
+        private final PropertyNotFoundException[] notFound;
+        private final PropertyNotFoundException[] notNavigable;
+        private final PropertyNotFoundException notMap;
+
+        ElemPath(String[] tokens, String propertyPath) {
+            // tokens[0] is 'elem' or 'it'
+            keys = new PropertyKey[tokens.length - 1];
+            notFound = new PropertyNotFoundException[tokens.length - 1];
+            notNavigable = new PropertyNotFoundException[tokens.length - 1];
+            for (int i = 1; i < tokens.length; i++) {
+                keys[i - 1] = new PropertyKey(tokens[i]);
+                notFound[i - 1] = PropertyNotFoundException.stackless(
+                    "Property 'elem." + propertyPath + "' cannot be found at '" + tokens[i] + "'");
+                notNavigable[i - 1] = PropertyNotFoundException.stackless(
+                    "Property 'elem." + propertyPath + "' cannot be navigated - '" + tokens[i] + "' is not a map");
+            }
+            notMap = PropertyNotFoundException.stackless(
+                "Property 'elem." + propertyPath + "' cannot be found - item is not a map");
         }
 
         @SuppressWarnings("unchecked")
-        private Object resolveNestedProperty(RuleFlowLanguageParser.ValidPropertyContext ctx, Map<String, ?> data, int startIndex) {
-            Map<String, ?> currentData = data;
-            var allTokens = getAllTokens(ctx);
-            logger.debug("ScopedVisitor.resolveNestedProperty: allTokens={}, startIndex={}, data={}", allTokens, startIndex, data);
-            
-            for (int i = startIndex; i < allTokens.size(); i++) {
-                String part = allTokens.get(i);
-                Object value = currentData.get(part);
-                logger.debug("ScopedVisitor.resolveNestedProperty: part={}, value={}, currentData={}", part, value, currentData);
-                
+        Object resolve(Map<String, ?> item) {
+            Map<String, ?> currentData = item;
+            for (int i = 0; i < keys.length; i++) {
+                Object value = keys[i].get(currentData);
                 if (value == null) {
-                    throw new PropertyNotFoundException("Property 'elem." + getPropertyPath(ctx, startIndex) + "' cannot be found at '" + part + "'");
+                    throw notFound[i];
                 }
-                
-                if (i == allTokens.size() - 1) {
+                if (i == keys.length - 1) {
                     // Last part, return the value
                     return value;
                 } else if (value instanceof Map<?, ?>) {
@@ -186,45 +246,142 @@ public class EvalInListContextEvaluator implements ContextEvaluator<RuleFlowLang
                     currentData = (Map<String, ?>) value;
                 } else {
                     // Not a map, cannot navigate further
-                    throw new PropertyNotFoundException("Property 'elem." + getPropertyPath(ctx, startIndex) + "' cannot be navigated - '" + part + "' is not a map");
+                    throw notNavigable[i];
                 }
             }
-            
-            throw new PropertyNotFoundException("Property 'elem." + getPropertyPath(ctx, startIndex) + "' cannot be found");
+            throw notFound[keys.length - 1];
+        }
+    }
+
+    /**
+     * An {@code elem.field == value} conjunct, answered by the items grouped under the value's
+     * {@link ComparatorContextEvaluator#equalityKey equality key} in a field index of the list.
+     */
+    private static final class EqualityProbe {
+        private static final Function<Object, Object> EXACT = value -> ComparatorContextEvaluator.equalityKey(value, false);
+        private static final Function<Object, Object> IGNORE_CASE = value -> ComparatorContextEvaluator.equalityKey(value, true);
+
+        private final String field;
+        private final CompiledExpr value;
+        // A simple property the predicate reads from the item instead, when the item has it
+        private final String shadowedBy;
+        private final boolean ignoreCase;
+
+        private EqualityProbe(String field, CompiledExpr value, String shadowedBy, boolean ignoreCase) {
+            this.field = field;
+            this.value = value;
+            this.shadowedBy = shadowedBy;
+            this.ignoreCase = ignoreCase;
         }
 
-        private List<String> getAllTokens(RuleFlowLanguageParser.ValidPropertyContext ctx) {
-            List<String> tokens = new java.util.ArrayList<>();
-            // For nested properties, tokens appear in order: first token, DOT, second token, DOT, etc.
-            // We need to preserve the order as they appear in the parse tree
-            // K_ELEM tokens appear before ID tokens in the property path
-            int totalTokens = ctx.K_ELEM().size() + ctx.ID().size();
-            
-            // For elem.field1, we have: K_ELEM("elem") at index 0, ID("field1") at index 1
-            // So we add K_ELEM tokens first, then ID tokens
-            for (int i = 0; i < ctx.K_ELEM().size(); i++) {
-                tokens.add(ctx.K_ELEM(i).getText());
+        /**
+         * A probe for {@code itemSide == valueSide}, or {@code null} unless the item side is a
+         * single {@code elem.}/{@code it.} field and the value side is a literal or a property
+         * outside the item.
+         */
+        static EqualityProbe of(RuleFlowLanguageParser.ExprContext itemSide, RuleFlowLanguageParser.ExprContext valueSide,
+                                boolean ignoreCase, ExprCompiler compiler) {
+            String field = itemField(itemSide);
+            if (field == null) {
+                return null;
+            }
+            String shadowedBy = null;
+            RuleFlowLanguageParser.ExprContext valueBase = valueSide;
+            while (valueBase instanceof RuleFlowLanguageParser.MemberAccessContext memberAccess) {
+                valueBase = memberAccess.base;
             }
-            for (int i = 0; i < ctx.ID().size(); i++) {
-                tokens.add(ctx.ID(i).getText());
+            if (valueBase instanceof RuleFlowLanguageParser.PropertyContext valueProperty) {
+                if (startsWithElem(valueProperty.validProperty())) {
+                    return null;
+                }
+                if (valueProperty.validProperty().property != null) {
+                    shadowedBy = getFirstTokenText(valueProperty.validProperty());
+                }
+            } else if (valueBase != valueSide || !(valueSide instanceof RuleFlowLanguageParser.ValueContext)) {
+                return null;
             }
-            
-            return tokens;
+            // Compiled in the scope of the evalInList itself, as the item scope falls back to it
+            return new EqualityProbe(field, compiler.compile(valueSide), shadowedBy, ignoreCase);
         }
 
-        private String getPropertyPath(RuleFlowLanguageParser.ValidPropertyContext ctx, int startIndex) {
-            var allTokens = getAllTokens(ctx);
-            StringBuilder path = new StringBuilder();
-            for (int i = startIndex; i < allTokens.size(); i++) {
-                if (i > startIndex) {
-                    path.append(".");
-                }
-                path.append(allTokens.get(i));
+        // The field of 'elem.field' or 'it.field', which parse either as one property or as a member access
+        private static String itemField(RuleFlowLanguageParser.ExprContext expr) {
+            if (expr instanceof RuleFlowLanguageParser.PropertyContext property && startsWithElem(property.validProperty())) {
+                String[] tokens = getAllTokens(property.validProperty());
+                return tokens.length == 2 ? tokens[1] : null;
             }
-            return path.toString();
+            if (expr instanceof RuleFlowLanguageParser.MemberAccessContext memberAccess
+                && memberAccess.base instanceof RuleFlowLanguageParser.PropertyContext base
+                && startsWithElem(base.validProperty())
+                && getAllTokens(base.validProperty()).length == 1) {
+                return memberAccess.field.getText();
+            }
+            return null;
         }
 
+        /**
+         * The items whose field equals the value, or {@code null} when the index cannot tell.
+         */
+        List<?> candidates(StoredList storedList, Visitor visitor) {
+            if (shadowedBy != null && storedList.hasField(shadowedBy)) {
+                return null;
+            }
+            Map<Object, List<Map<?, ?>>> index = storedList.fieldIndex(field, ignoreCase ? IGNORE_CASE : EXACT);
+            if (index == null) {
+                return null;
+            }
+            Object probeValue;
+            try {
+                probeValue = visitor.evaluate(value);
+            } catch (RuntimeException e) {
+                // Evaluated per item instead, so the failure is reported as before
+                return null;
+            }
+            Object key = probeValue == null ? null : ComparatorContextEvaluator.equalityKey(probeValue, ignoreCase);
+            if (key == null || ignoreCase && "".equals(key)) {
+                // Null fields, which the index leaves out, can equal these
+                return null;
+            }
+            return index.getOrDefault(key, List.of());
+        }
     }
-}
 
+    /**
+     * Visitor for the items of one list: the current item is the data context, while root,
+     * lists and functions come from the parent visitor. It is moved from item to item through
+     * a single {@link ItemFrame} rather than built per item.
+     */
+    private static class ScopedVisitor extends Visitor {
+        private final ItemFrame frame;
+        private final Visitor parentVisitor;
+
+        ScopedVisitor(Visitor parentVisitor) {
+            this(new ItemFrame(), parentVisitor);
+        }
 
+        private ScopedVisitor(ItemFrame frame, Visitor parentVisitor) {
+            // Use the current item as data context, preserve root and lists from parent
+            super(frame, parentVisitor.getListIndex(), parentVisitor.getRoot(), parentVisitor.getFunctions());
+            this.frame = frame;
+            this.parentVisitor = parentVisitor;
+        }
+
+        /**
+         * Makes {@code item} the current item, with fresh variables and function call cache
+         * as for a visitor of its own. {@code it} aliases the item inside predicates.
+         */
+        @SuppressWarnings("unchecked")
+        void enter(Object item) {
+            frame.bind(item instanceof Map ? (Map<String, ?>) item : Map.of(), item);
+            rebind(frame, getRoot());
+        }
+
+        public Object getCurrentItem() {
+            return frame.getItem();
+        }
+
+        public Visitor getParentVisitor() {
+            return parentVisitor;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.gatekeeperx.ruleflow.evaluators;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.AggregationGroups;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import com.gatekeeperx.ruleflow.evaluators.AggregationContextEvaluator.Items;
+import com.gatekeeperx.ruleflow.evaluators.AggregationContextEvaluator.Predicate;
+import com.gatekeeperx.ruleflow.visitors.Visitor;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The aggregations of one {@link AggregationGroups.Group}, computed together in a single pass
+ * over their list the first time one of them is evaluated, and served from the visitor's
+ * aggregation cache for the rest of the evaluation.
+ * <p>
+ * Each aggregation stops evaluating its predicate where it would have stopped on its own, and
+ * one that fails keeps its exception to rethrow when it is asked for, so results and errors are
+ * the same as evaluating the aggregations one by one.
+ */
+final class FusedAggregations {
+    private static final Logger logger = LoggerFactory.getLogger(FusedAggregations.class);
+
+    private final CompiledExpr valueExpr;
+    private final String valueText;
+    private final int[] ops;
+    private final Predicate[] predicates;
+    // Set for numeric aggregations, which always read the whole list
+    private final NumericAggregation[] numerics;
+
+    FusedAggregations(AggregationGroups.Group group, ExprCompiler compiler) {
+        List<ParserRuleContext> members = group.getMembers();
+        this.valueExpr = compiler.compile(group.getSourceExpr());
+        this.valueText = group.getSource();
+        this.ops = new int[members.size()];
+        this.predicates = new Predicate[members.size()];
+        this.numerics = new NumericAggregation[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i) instanceof RuleFlowLanguageParser.NumericAggregationContext numeric) {
+                ops[i] = numeric.op.getType();
+                numerics[i] = new NumericAggregation(numeric, compiler);
+            } else {
+                RuleFlowLanguageParser.AggregationContext aggregation = (RuleFlowLanguageParser.AggregationContext) members.get(i);
+                ops[i] = aggregation.op.getType();
+                predicates[i] = Predicate.compile(aggregation, compiler);
+            }
+        }
+    }
+
+    Object result(Visitor visitor, int slot) {
+        Object[] results = (Object[]) visitor.getAggregationCache().get(this);
+        if (results == null) {
+            // Failures of the source itself are not kept; each aggregation reports them as before
+            results = compute(visitor);
+            visitor.getAggregationCache().put(this, results);
+        }
+        Object result = results[slot];
+        if (result instanceof Failure failure) {
+            throw failure.exception;
+        }
+        return result;
+    }
+
+    private Object[] compute(Visitor visitor) {
+        Object value = valueExpr.evaluate(visitor);
+        if (!(value instanceof List<?> list)) {
+            throw new RuntimeException(valueText + " is not a Collection");
+        }
+
+        int size = ops.length;
+        Items[] items = new Items[size];
+        NumericAggregation.Accumulation[] accumulations = new NumericAggregation.Accumulation[size];
+        long[] counts = new long[size];
+        Object[] results = new Object[size];
+        int pending = 0;
+        for (int i = 0; i < size; i++) {
+            if (numerics[i] != null) {
+                try {
+                    accumulations[i] = numerics[i].start(visitor);
+                    pending++;
+                } catch (RuntimeException e) {
+                    results[i] = new Failure(e);
+                }
+            } else if (predicates[i] == null && isCount(ops[i])) {
+                // Counting without a predicate counts the whole list
+                counts[i] = list.size();
+            } else {
+                items[i] = new Items(list, predicates[i], visitor);
+                pending++;
+            }
+        }
+
+        for (Object data : list) {
+            if (pending == 0) {
+                break;
+            }
+            for (int i = 0; i < size; i++) {
+                if (accumulations[i] != null) {
+                    try {
+                        accumulations[i].add(data);
+                    } catch (RuntimeException e) {
+                        results[i] = new Failure(e);
+                        accumulations[i] = null;
+                        pending--;
+                    }
+                    continue;
+                }
+                if (items[i] == null) {
+                    continue;
+                }
+                try {
+                    boolean match = items[i].matches(data);
+                    switch (ops[i]) {
+                        case RuleFlowLanguageLexer.K_ALL:
+                            if (!match) {
+                                results[i] = false;
+                            }
+                            break;
+                        case RuleFlowLanguageLexer.K_CONTAINS:
+                        case RuleFlowLanguageLexer.K_ANY:
+                        case RuleFlowLanguageLexer.K_NONE:
+                            if (match) {
+                                results[i] = ops[i] != RuleFlowLanguageLexer.K_NONE;
+                            }
+                            break;
+                        default:
+                            if (match) {
+                                counts[i]++;
+                            }
+                    }
+                } catch (RuntimeException e) {
+                    results[i] = new Failure(e);
+                }
+                if (results[i] != null) {
+                    // Decided; later items are not evaluated, as they would not have been alone
+                    items[i] = null;
+                    pending--;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (accumulations[i] != null) {
+                try {
+                    results[i] = accumulations[i].result();
+                } catch (RuntimeException e) {
+                    results[i] = new Failure(e);
+                }
+            } else if (results[i] == null) {
+                results[i] = finish(ops[i], counts[i], list.size());
+            }
+        }
+        logger.debug("Aggregation: fused {} aggregations over {}", size, valueText);
+        return results;
+    }
+
+    private static Object finish(int op, long count, int listSize) {
+        switch (op) {
+            case RuleFlowLanguageLexer.K_ALL:
+                return true;
+            case RuleFlowLanguageLexer.K_CONTAINS:
+            case RuleFlowLanguageLexer.K_ANY:
+                return false;
+            case RuleFlowLanguageLexer.K_NONE:
+                return true;
+            case RuleFlowLanguageLexer.K_COUNT:
+                return BigDecimal.valueOf(count);
+            case RuleFlowLanguageLexer.K_AVERAGE:
+                try {
+                    return BigDecimal.valueOf(count).divide(BigDecimal.valueOf(listSize), 3, RoundingMode.DOWN);
+                } catch (ArithmeticException e) {
+                    return new Failure(e);
+                }
+            default:
+                return new Failure(new RuntimeException("Operation not supported: " + op));
+        }
+    }
+
+    private static boolean isCount(int op) {
+        return op == RuleFlowLanguageLexer.K_COUNT || op == RuleFlowLanguageLexer.K_AVERAGE;
+    }
+
+    private record Failure(RuntimeException exception) { }
+}
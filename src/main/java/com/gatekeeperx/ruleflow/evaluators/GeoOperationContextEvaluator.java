@@ -1,73 +1,105 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class GeoOperationContextEvaluator {
+public class GeoOperationContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.GeoOperationContext> {
     private static final Logger logger = LoggerFactory.getLogger(GeoOperationContextEvaluator.class);
 
-    public Object evaluate(RuleFlowLanguageParser.GeoOperationContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        Object result;
+    @Override
+    public CompiledExpr compile(RuleFlowLanguageParser.GeoOperationContext ctx, ExprCompiler compiler) {
+        CompiledExpr operation;
         if (ctx.geoExpr() instanceof com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashEncodeContext) {
-            result = evaluateGeohashEncode((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashEncodeContext) ctx.geoExpr(), visitor);
+            operation = compileGeohashEncode((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashEncodeContext) ctx.geoExpr(), compiler);
         } else if (ctx.geoExpr() instanceof com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashDecodeContext) {
-            result = evaluateGeohashDecode((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashDecodeContext) ctx.geoExpr(), visitor);
+            operation = compileGeohashDecode((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashDecodeContext) ctx.geoExpr(), compiler);
         } else if (ctx.geoExpr() instanceof com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceContext) {
-            result = evaluateDistance((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceContext) ctx.geoExpr(), visitor);
+            operation = compileDistance((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceContext) ctx.geoExpr(), compiler);
         } else if (ctx.geoExpr() instanceof com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceGeohashContext) {
-            result = evaluateDistanceGeohash((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceGeohashContext) ctx.geoExpr(), visitor);
+            operation = compileDistanceGeohash((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceGeohashContext) ctx.geoExpr(), compiler);
         } else if (ctx.geoExpr() instanceof com.gatekeeperx.ruleflow.RuleFlowLanguageParser.WithinRadiusContext) {
-            result = evaluateWithinRadius((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.WithinRadiusContext) ctx.geoExpr(), visitor);
+            operation = compileWithinRadius((com.gatekeeperx.ruleflow.RuleFlowLanguageParser.WithinRadiusContext) ctx.geoExpr(), compiler);
         } else {
             throw new IllegalArgumentException("Unknown geo operation: " + ctx.getText());
         }
-        logger.debug("GeoOperation: ctx={}, result={}", ctx.getText(), result);
-        return result;
+        String text = ctx.getText();
+        return visitor -> {
+            Object result = operation.evaluate(visitor);
+            logger.debug("GeoOperation: ctx={}, result={}", text, result);
+            return result;
+        };
     }
 
-    private Object evaluateGeohashEncode(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashEncodeContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        double lat = ((Number) visitor.visit(ctx.lat)).doubleValue();
-        double lon = ((Number) visitor.visit(ctx.lon)).doubleValue();
-        int precision = ctx.precision != null ? ((Number) visitor.visit(ctx.precision)).intValue() : 12;
-        String result = com.gatekeeperx.ruleflow.utils.GeoUtils.encodeGeohash(lat, lon, precision);
-        logger.debug("geohash_encode({}, {}, {}) -> {}", lat, lon, precision, result);
-        return result;
+    private CompiledExpr compileGeohashEncode(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashEncodeContext ctx, ExprCompiler compiler) {
+        CompiledExpr latExpr = compiler.compile(ctx.lat);
+        CompiledExpr lonExpr = compiler.compile(ctx.lon);
+        CompiledExpr precisionExpr = ctx.precision != null ? compiler.compile(ctx.precision) : null;
+        return visitor -> {
+            double lat = ((Number) latExpr.evaluate(visitor)).doubleValue();
+            double lon = ((Number) lonExpr.evaluate(visitor)).doubleValue();
+            int precision = precisionExpr != null ? ((Number) precisionExpr.evaluate(visitor)).intValue() : 12;
+            String result = com.gatekeeperx.ruleflow.utils.GeoUtils.encodeGeohash(lat, lon, precision);
+            logger.debug("geohash_encode({}, {}, {}) -> {}", lat, lon, precision, result);
+            return result;
+        };
     }
 
-    private Object evaluateGeohashDecode(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashDecodeContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        String geohash = visitor.visit(ctx.geohash).toString();
-        double[] result = com.gatekeeperx.ruleflow.utils.GeoUtils.decodeGeohash(geohash);
-        logger.debug("geohash_decode({}) -> [{}, {}]", geohash, result[0], result[1]);
-        return result;
+    private CompiledExpr compileGeohashDecode(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.GeohashDecodeContext ctx, ExprCompiler compiler) {
+        CompiledExpr geohashExpr = compiler.compile(ctx.geohash);
+        return visitor -> {
+            String geohash = geohashExpr.evaluate(visitor).toString();
+            double[] result = com.gatekeeperx.ruleflow.utils.GeoUtils.decodeGeohash(geohash);
+            logger.debug("geohash_decode({}) -> [{}, {}]", geohash, result[0], result[1]);
+            return result;
+        };
     }
 
-    private Object evaluateDistance(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        double lat1 = ((Number) visitor.visit(ctx.lat1)).doubleValue();
-        double lon1 = ((Number) visitor.visit(ctx.lon1)).doubleValue();
-        double lat2 = ((Number) visitor.visit(ctx.lat2)).doubleValue();
-        double lon2 = ((Number) visitor.visit(ctx.lon2)).doubleValue();
-        double result = com.gatekeeperx.ruleflow.utils.GeoUtils.distance(lat1, lon1, lat2, lon2);
-        logger.debug("distance({}, {}, {}, {}) -> {}", lat1, lon1, lat2, lon2, result);
-        return result;
+    private CompiledExpr compileDistance(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceContext ctx, ExprCompiler compiler) {
+        CompiledExpr lat1Expr = compiler.compile(ctx.lat1);
+        CompiledExpr lon1Expr = compiler.compile(ctx.lon1);
+        CompiledExpr lat2Expr = compiler.compile(ctx.lat2);
+        CompiledExpr lon2Expr = compiler.compile(ctx.lon2);
+        return visitor -> {
+            double lat1 = ((Number) lat1Expr.evaluate(visitor)).doubleValue();
+            double lon1 = ((Number) lon1Expr.evaluate(visitor)).doubleValue();
+            double lat2 = ((Number) lat2Expr.evaluate(visitor)).doubleValue();
+            double lon2 = ((Number) lon2Expr.evaluate(visitor)).doubleValue();
+            double result = com.gatekeeperx.ruleflow.utils.GeoUtils.distance(lat1, lon1, lat2, lon2);
+            logger.debug("distance({}, {}, {}, {}) -> {}", lat1, lon1, lat2, lon2, result);
+            return result;
+        };
     }
 
-    private Object evaluateDistanceGeohash(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceGeohashContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        String geohash1 = visitor.visit(ctx.geohash1).toString();
-        String geohash2 = visitor.visit(ctx.geohash2).toString();
-        double result = com.gatekeeperx.ruleflow.utils.GeoUtils.distance(geohash1, geohash2);
-        logger.debug("distance({}, {}) -> {}", geohash1, geohash2, result);
-        return result;
+    private CompiledExpr compileDistanceGeohash(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.DistanceGeohashContext ctx, ExprCompiler compiler) {
+        CompiledExpr geohash1Expr = compiler.compile(ctx.geohash1);
+        CompiledExpr geohash2Expr = compiler.compile(ctx.geohash2);
+        return visitor -> {
+            String geohash1 = geohash1Expr.evaluate(visitor).toString();
+            String geohash2 = geohash2Expr.evaluate(visitor).toString();
+            double result = com.gatekeeperx.ruleflow.utils.GeoUtils.distance(geohash1, geohash2);
+            logger.debug("distance({}, {}) -> {}", geohash1, geohash2, result);
+            return result;
+        };
     }
 
-    private Object evaluateWithinRadius(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.WithinRadiusContext ctx, com.gatekeeperx.ruleflow.visitors.Visitor visitor) {
-        double lat1 = ((Number) visitor.visit(ctx.lat1)).doubleValue();
-        double lon1 = ((Number) visitor.visit(ctx.lon1)).doubleValue();
-        double lat2 = ((Number) visitor.visit(ctx.lat2)).doubleValue();
-        double lon2 = ((Number) visitor.visit(ctx.lon2)).doubleValue();
-        double radius = ((Number) visitor.visit(ctx.radius)).doubleValue();
-        boolean result = com.gatekeeperx.ruleflow.utils.GeoUtils.withinRadius(lat1, lon1, lat2, lon2, radius);
-        logger.debug("within_radius({}, {}, {}, {}, {}) -> {}", lat1, lon1, lat2, lon2, radius, result);
-        return result;
+    private CompiledExpr compileWithinRadius(com.gatekeeperx.ruleflow.RuleFlowLanguageParser.WithinRadiusContext ctx, ExprCompiler compiler) {
+        CompiledExpr lat1Expr = compiler.compile(ctx.lat1);
+        CompiledExpr lon1Expr = compiler.compile(ctx.lon1);
+        CompiledExpr lat2Expr = compiler.compile(ctx.lat2);
+        CompiledExpr lon2Expr = compiler.compile(ctx.lon2);
+        CompiledExpr radiusExpr = compiler.compile(ctx.radius);
+        return visitor -> {
+            double lat1 = ((Number) lat1Expr.evaluate(visitor)).doubleValue();
+            double lon1 = ((Number) lon1Expr.evaluate(visitor)).doubleValue();
+            double lat2 = ((Number) lat2Expr.evaluate(visitor)).doubleValue();
+            double lon2 = ((Number) lon2Expr.evaluate(visitor)).doubleValue();
+            double radius = ((Number) radiusExpr.evaluate(visitor)).doubleValue();
+            boolean result = com.gatekeeperx.ruleflow.utils.GeoUtils.withinRadius(lat1, lon1, lat2, lon2, radius);
+            logger.debug("within_radius({}, {}, {}, {}, {}) -> {}", lat1, lon1, lat2, lon2, radius, result);
+            return result;
+        };
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,48 @@
+package com.gatekeeperx.ruleflow.evaluators;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The data of a predicate evaluated against one list item: the item's own fields plus
+ * {@code it}, the item itself. One frame is rebound to each item in turn instead of copying
+ * every item into a new map.
+ */
+final class ItemFrame extends AbstractMap<String, Object> {
+    private static final String IT = "it";
+
+    private Map<String, ?> fields = Map.of();
+    private Object item;
+
+    /**
+     * Binds the frame to {@code item}, whose fields become readable directly.
+     */
+    void bind(Map<String, ?> fields, Object item) {
+        this.fields = fields;
+        this.item = item;
+    }
+
+    Object getItem() {
+        return item;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return IT.equals(key) ? item : fields.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return IT.equals(key) || fields.containsKey(key);
+    }
+
+    // Only reached when something iterates the frame, which predicates themselves never do
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> copy = new LinkedHashMap<>(fields);
+        copy.put(IT, item);
+        return copy.entrySet();
+    }
+}
@@ -2,131 +2,164 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
 import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.lists.StoredList;
+import com.gatekeeperx.ruleflow.utils.AhoCorasick;
+import com.gatekeeperx.ruleflow.utils.PrefixTrie;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ListContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.ListContext> {
     private static final Logger logger = LoggerFactory.getLogger(ListContextEvaluator.class);
+    private static final ValidPropertyContextEvaluator VALID_PROPERTY = new ValidPropertyContextEvaluator();
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.ListContext ctx, Visitor visitor)
-        throws PropertyNotFoundException, UnexpectedSymbolException {
-        Object result;
-        if (ctx.not == null && ctx.op.getType() == RuleFlowLanguageLexer.K_CONTAINS) {
-            result = evalContains(ctx, visitor);
-        } else if (ctx.not != null && ctx.op.getType() == RuleFlowLanguageLexer.K_CONTAINS) {
-            result = !(Boolean) evalContains(ctx, visitor);
-        } else if (ctx.not == null && ctx.op.getType() == RuleFlowLanguageLexer.K_IN) {
-            result = evalIn(ctx, visitor);
-        } else if (ctx.not != null && ctx.op.getType() == RuleFlowLanguageLexer.K_IN) {
-            result = !(Boolean) evalIn(ctx, visitor);
-        } else if (ctx.not == null && ctx.op.getType() == RuleFlowLanguageLexer.K_STARTS_WITH) {
-            result = evalStartsWith(ctx, visitor);
-        } else if (ctx.not != null && ctx.op.getType() == RuleFlowLanguageLexer.K_STARTS_WITH) {
-            result = !(Boolean) evalStartsWith(ctx, visitor);
+    public CompiledExpr compile(RuleFlowLanguageParser.ListContext ctx, ExprCompiler compiler) {
+        CompiledExpr operation;
+        if (ctx.op.getType() == RuleFlowLanguageLexer.K_CONTAINS) {
+            operation = compileContains(ctx, compiler);
+        } else if (ctx.op.getType() == RuleFlowLanguageLexer.K_IN) {
+            operation = compileIn(ctx, compiler);
+        } else if (ctx.op.getType() == RuleFlowLanguageLexer.K_STARTS_WITH) {
+            operation = compileStartsWith(ctx, compiler);
         } else {
-            throw new UnexpectedSymbolException("Unexpected token near " + ctx.value.getText());
+            String valueText = ctx.value.getText();
+            return visitor -> {
+                throw new UnexpectedSymbolException("Unexpected token near " + valueText);
+            };
         }
-        logger.debug("List: value={}, op={}, not={}, result={}", ctx.value.getText(), ctx.op.getText(), ctx.not != null, result);
-        return result;
+
+        boolean not = ctx.not != null;
+        String valueText = ctx.value.getText();
+        String opText = ctx.op.getText();
+        return visitor -> {
+            Object result = not ? !(Boolean) operation.evaluate(visitor) : operation.evaluate(visitor);
+            logger.debug("List: value={}, op={}, not={}, result={}", valueText, opText, not, result);
+            return result;
+        };
     }
 
-    private Object evalIn(RuleFlowLanguageParser.ListContext ctx, Visitor visitor) throws PropertyNotFoundException {
-        Object value = visitor.visit(ctx.value);
-        if (value == null) {
-            throw new PropertyNotFoundException(ctx.value.getText() + " field cannot be found");
-        }
+    private CompiledExpr compileIn(RuleFlowLanguageParser.ListContext ctx, ExprCompiler compiler) {
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
+        PropertyNotFoundException missing = missing(ctx);
 
         if (ctx.values.literalList != null) {
-            List<String> literals = ctx.values.string_literal().stream()
-                .map(literal -> literal.getText().replace("'", ""))
-                .toList();
-            return literals.contains(value);
+            // Hashed once per workflow; String equality keeps non-string values from matching
+            Set<String> literals = Set.copyOf(literals(ctx));
+            return visitor -> {
+                Object value = requireValue(valueExpr.evaluate(visitor), missing);
+                return literals.contains(value);
+            };
         } else if (ctx.values.storedList != null) {
             String listKey = ctx.values.string_literal(0).getText().replace("'", "");
-            List<?> list = visitor.getLists().get(listKey);
-            if (list == null) return false;
-            return list.stream().anyMatch(item -> {
-                if (item instanceof Map<?, ?> map) {
-                    // For Map elements, check if any value matches
-                    return map.containsValue(value.toString());
-                }
-                return item.toString().equals(value.toString());
-            });
+            return visitor -> {
+                Object value = requireValue(valueExpr.evaluate(visitor), missing);
+                StoredList list = visitor.getListIndex().get(listKey);
+                if (list == null) return false;
+                // Scalars match by string form; for Map elements any field value may match
+                return list.contains(value.toString());
+            };
         } else if (ctx.values.validProperty() != null) {
-            List<?> validPropertyList = (List<?>) new ValidPropertyContextEvaluator().evaluate(ctx.values.validProperty(), visitor);
-            return validPropertyList.contains(value);
+            CompiledExpr validProperty = VALID_PROPERTY.compile(ctx.values.validProperty(), compiler);
+            return visitor -> {
+                Object value = requireValue(valueExpr.evaluate(visitor), missing);
+                List<?> validPropertyList = (List<?>) validProperty.evaluate(visitor);
+                return validPropertyList.contains(value);
+            };
         } else {
-            throw new RuntimeException("Cannot find symbol " + ctx.values);
+            String valuesText = String.valueOf(ctx.values);
+            return visitor -> {
+                requireValue(valueExpr.evaluate(visitor), missing);
+                throw new RuntimeException("Cannot find symbol " + valuesText);
+            };
         }
     }
 
-    private Object evalContains(RuleFlowLanguageParser.ListContext ctx, Visitor visitor) throws PropertyNotFoundException {
-        Object value = visitor.visit(ctx.value);
-        if (value == null) {
-            throw new PropertyNotFoundException(ctx.value.getText() + " field cannot be found");
-        }
+    private CompiledExpr compileContains(RuleFlowLanguageParser.ListContext ctx, ExprCompiler compiler) {
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
+        PropertyNotFoundException missing = missing(ctx);
 
         if (ctx.values.literalList != null) {
-            List<String> literals = ctx.values.string_literal().stream()
-                .map(literal -> literal.getText().replace("'", ""))
-                .collect(Collectors.toList());
-            return literals.stream().anyMatch(literal -> value.toString().contains(literal));
+            AhoCorasick literals = AhoCorasick.of(literals(ctx));
+            return visitor -> {
+                Object value = requireValue(valueExpr.evaluate(visitor), missing);
+                return literals.matchesAny(value.toString());
+            };
         } else if (ctx.values.storedList != null) {
             String listKey = ctx.values.string_literal(0).getText().replace("'", "");
-            List<?> list = visitor.getLists().get(listKey);
-            if (list == null) return false;
-            return list.stream().anyMatch(item -> {
-                if (item instanceof Map<?, ?> map) {
-                    // For Map elements, check if value contains any of the map's values
-                    return map.values().stream()
-                        .anyMatch(mapValue -> value.toString().contains(mapValue.toString()));
-                }
-                return value.toString().contains(item.toString());
-            });
+            return visitor -> {
+                Object value = requireValue(valueExpr.evaluate(visitor), missing);
+                StoredList list = visitor.getListIndex().get(listKey);
+                if (list == null) return false;
+                // For Map elements, check if value contains any of the map's values
+                return list.anyContainedIn(value.toString());
+            };
         } else {
-            throw new RuntimeException("Cannot find symbol");
+            return visitor -> {
+                requireValue(valueExpr.evaluate(visitor), missing);
+                throw new RuntimeException("Cannot find symbol");
+            };
         }
     }
 
-    private Object evalStartsWith(RuleFlowLanguageParser.ListContext ctx, Visitor visitor)
-        throws PropertyNotFoundException, UnexpectedSymbolException {
-        Object rawValue = visitor.visit(ctx.value);
-        if (rawValue == null) {
-            throw new PropertyNotFoundException(ctx.value.getText() + " field cannot be found");
-        }
-        String value = rawValue.toString();
-        List<?> list;
+    private CompiledExpr compileStartsWith(RuleFlowLanguageParser.ListContext ctx, ExprCompiler compiler) {
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
+        PropertyNotFoundException missing = missing(ctx);
 
         if (ctx.values.literalList != null) {
-            list = ctx.values.string_literal().stream()
-                .map(literal -> literal.getText().replace("'", ""))
-                .collect(Collectors.toList());
+            PrefixTrie literals = PrefixTrie.of(literals(ctx));
+            return visitor -> {
+                String value = requireValue(valueExpr.evaluate(visitor), missing).toString();
+                return literals.matchesPrefixOf(value);
+            };
         } else if (ctx.values.storedList != null) {
             String listKey = ctx.values.string_literal(0).getText().replace("'", "");
-            List<?> storedList = visitor.getLists().get(listKey);
-            if (storedList == null) return false;
-            // Handle Map elements for stored lists
-            return storedList.stream().anyMatch(item -> {
-                if (item instanceof Map<?, ?> map) {
-                    return map.values().stream()
-                        .anyMatch(mapValue -> value.startsWith(mapValue.toString()));
-                }
-                return value.startsWith(item.toString());
-            });
+            return visitor -> {
+                String value = requireValue(valueExpr.evaluate(visitor), missing).toString();
+                StoredList storedList = visitor.getListIndex().get(listKey);
+                if (storedList == null) return false;
+                // Handle Map elements for stored lists
+                return storedList.anyPrefixOf(value);
+            };
         } else if (ctx.values.validProperty() != null) {
-            list = (List<?>) new ValidPropertyContextEvaluator().evaluate(ctx.values.validProperty(), visitor);
+            CompiledExpr validProperty = VALID_PROPERTY.compile(ctx.values.validProperty(), compiler);
+            return visitor -> {
+                String value = requireValue(valueExpr.evaluate(visitor), missing).toString();
+                return startsWithAny(value, (List<?>) validProperty.evaluate(visitor));
+            };
         } else {
-            throw new UnexpectedSymbolException("Unexpected symbol " + ctx.values);
+            String valuesText = String.valueOf(ctx.values);
+            return visitor -> {
+                requireValue(valueExpr.evaluate(visitor), missing);
+                throw new UnexpectedSymbolException("Unexpected symbol " + valuesText);
+            };
         }
+    }
 
+    private boolean startsWithAny(String value, List<?> list) {
         return list.stream()
             .anyMatch(elem -> value.startsWith(elem.toString()));
     }
-}
\ No newline at end of file
+
+    private Object requireValue(Object value, PropertyNotFoundException missing) {
+        if (value == null) {
+            throw missing;
+        }
+        return value;
+    }
+
+    private PropertyNotFoundException missing(RuleFlowLanguageParser.ListContext ctx) {
+        return PropertyNotFoundException.stackless(ctx.value.getText() + " field cannot be found");
+    }
+
+    private List<String> literals(RuleFlowLanguageParser.ListContext ctx) {
+        return ctx.values.string_literal().stream()
+            .map(literal -> literal.getText().replace("'", ""))
+            .toList();
+    }
+}
@@ -2,7 +2,9 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.MathAddContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,27 +12,41 @@ public class MathAddContextEvaluator implements ContextEvaluator<MathAddContext>
     private static final Logger logger = LoggerFactory.getLogger(MathAddContextEvaluator.class);
 
     @Override
-    public Object evaluate(MathAddContext ctx, Visitor visitor) {
-        Object leftVal = visitor.visit(ctx.left);
-        Object rightVal = visitor.visit(ctx.right);
+    public CompiledExpr compile(MathAddContext ctx, ExprCompiler compiler) {
+        CompiledExpr left = compiler.compile(ctx.left);
+        CompiledExpr right = compiler.compile(ctx.right);
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
+        if (ConstantExpr.allConstant(left, right)) {
+            try {
+                return new ConstantExpr(apply(op, opText,
+                    ((ConstantExpr) left).getValue(), ((ConstantExpr) right).getValue()));
+            } catch (RuntimeException e) {
+                // Not foldable (e.g. subtracting text); report it when the rule is evaluated
+            }
+        }
+        return visitor -> {
+            Object leftVal = left.evaluate(visitor);
+            Object rightVal = right.evaluate(visitor);
+            Object result = apply(op, opText, leftVal, rightVal);
+            logger.debug("MathAdd: left={}, right={}, op={}, result={}", leftVal, rightVal, opText, result);
+            return result;
+        };
+    }
 
-        Object result;
-        switch (ctx.op.getType()) {
+    private Object apply(int op, String opText, Object leftVal, Object rightVal) {
+        switch (op) {
             case RuleFlowLanguageLexer.ADD:
                 if (canParseDouble(leftVal) && canParseDouble(rightVal)) {
-                    result = Double.valueOf(leftVal.toString()) + Double.valueOf(rightVal.toString());
+                    return Double.valueOf(leftVal.toString()) + Double.valueOf(rightVal.toString());
                 } else {
-                    result = leftVal.toString() + rightVal.toString();
+                    return leftVal.toString() + rightVal.toString();
                 }
-                break;
             case RuleFlowLanguageLexer.MINUS:
-                result = Double.valueOf(leftVal.toString()) - Double.valueOf(rightVal.toString());
-                break;
+                return Double.valueOf(leftVal.toString()) - Double.valueOf(rightVal.toString());
             default:
-                throw new IllegalArgumentException("Operation not supported: " + ctx.op.getText());
+                throw new IllegalArgumentException("Operation not supported: " + opText);
         }
-        logger.debug("MathAdd: left={}, right={}, op={}, result={}", leftVal, rightVal, ctx.op.getText(), result);
-        return result;
     }
 
     private boolean canParseDouble(Object val) {
@@ -2,7 +2,9 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,27 +12,42 @@ public class MathMulContextEvaluator implements ContextEvaluator<RuleFlowLanguag
     private static final Logger logger = LoggerFactory.getLogger(MathMulContextEvaluator.class);
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.MathMulContext ctx, Visitor visitor) {
-        Object leftVal = visitor.visit(ctx.left);
-        Object rightVal = visitor.visit(ctx.right);
+    public CompiledExpr compile(RuleFlowLanguageParser.MathMulContext ctx, ExprCompiler compiler) {
+        CompiledExpr leftExpr = compiler.compile(ctx.left);
+        CompiledExpr rightExpr = compiler.compile(ctx.right);
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
+        if (ConstantExpr.allConstant(leftExpr, rightExpr)) {
+            try {
+                return new ConstantExpr(apply(op, opText,
+                    Double.valueOf(((ConstantExpr) leftExpr).getValue().toString()),
+                    Double.valueOf(((ConstantExpr) rightExpr).getValue().toString())));
+            } catch (RuntimeException e) {
+                // Not foldable (e.g. multiplying text); report it when the rule is evaluated
+            }
+        }
+        return visitor -> {
+            Object leftVal = leftExpr.evaluate(visitor);
+            Object rightVal = rightExpr.evaluate(visitor);
+
+            Double left = Double.valueOf(leftVal.toString());
+            Double right = Double.valueOf(rightVal.toString());
+            Object result = apply(op, opText, left, right);
+            logger.debug("MathMul: left={}, right={}, op={}, result={}", left, right, opText, result);
+            return result;
+        };
+    }
 
-        Double left = Double.valueOf(leftVal.toString());
-        Double right = Double.valueOf(rightVal.toString());
-        Object result;
-        switch (ctx.op.getType()) {
+    private Object apply(int op, String opText, Double left, Double right) {
+        switch (op) {
             case RuleFlowLanguageLexer.MULTIPLY:
-                result = left * right;
-                break;
+                return left * right;
             case RuleFlowLanguageLexer.DIVIDE:
-                result = right == 0 ? 0.00d : left / right;
-                break;
+                return right == 0 ? 0.00d : left / right;
             case RuleFlowLanguageLexer.MODULO:
-                result = left % right;
-                break;
+                return left % right;
             default:
-                throw new IllegalArgumentException("Operation not supported: " + ctx.op.getText());
+                throw new IllegalArgumentException("Operation not supported: " + opText);
         }
-        logger.debug("MathMul: left={}, right={}, op={}, result={}", left, right, ctx.op.getText(), result);
-        return result;
     }
-}
\ No newline at end of file
+}
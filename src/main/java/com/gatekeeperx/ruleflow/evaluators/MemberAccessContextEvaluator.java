@@ -1,9 +1,10 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.binding.PropertyKey;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
 
 import java.util.Map;
 
@@ -11,19 +12,24 @@ public class MemberAccessContextEvaluator
         implements ContextEvaluator<RuleFlowLanguageParser.MemberAccessContext> {
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.MemberAccessContext ctx, Visitor visitor)
-            throws PropertyNotFoundException, UnexpectedSymbolException {
-
-        Object base = visitor.visit(ctx.base);
+    public CompiledExpr compile(RuleFlowLanguageParser.MemberAccessContext ctx, ExprCompiler compiler) {
+        CompiledExpr baseExpr = compiler.compile(ctx.base);
         String field = ctx.field.getText();
+        PropertyKey key = new PropertyKey(field);
+        PropertyNotFoundException missing = PropertyNotFoundException.stackless(field + " field cannot be found");
 
-        if (base instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) base;
-            if (!map.containsKey(field)) {
-                throw new PropertyNotFoundException(field + " field cannot be found");
+        return visitor -> {
+            Object base = baseExpr.evaluate(visitor);
+            if (base instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, ?> map = (Map<String, ?>) base;
+                Object value = key.get(map);
+                if (value == null && !map.containsKey(field)) {
+                    throw missing;
+                }
+                return value;
             }
-            return map.get(field);
-        }
-        throw new PropertyNotFoundException("Cannot access field '" + field + "' on " + base);
+            throw new PropertyNotFoundException("Cannot access field '" + field + "' on " + base);
+        };
     }
 }
@@ -1,16 +1,19 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class NowContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.NowContext> {
     private static final Logger logger = LoggerFactory.getLogger(NowContextEvaluator.class);
     @Override
-    public Object evaluate(RuleFlowLanguageParser.NowContext ctx, Visitor visitor) {
-        java.time.ZonedDateTime result = java.time.ZonedDateTime.now();
-        logger.debug("Now: result={}", result);
-        return result;
+    public CompiledExpr compile(RuleFlowLanguageParser.NowContext ctx, ExprCompiler compiler) {
+        return visitor -> {
+            java.time.ZonedDateTime result = java.time.ZonedDateTime.now();
+            logger.debug("Now: result={}", result);
+            return result;
+        };
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,205 @@
+package com.gatekeeperx.ruleflow.evaluators;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import com.gatekeeperx.ruleflow.errors.TypeComparisonException;
+import com.gatekeeperx.ruleflow.visitors.Visitor;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A compiled {@code sum}, {@code min}, {@code max}, {@code avg} or {@code percentile} over the
+ * items of a list. The selector is evaluated against each item as aggregation predicates are;
+ * without one the items themselves are aggregated.
+ * <p>
+ * Values accumulate in primitive longs while they are all integral and fit, and in doubles
+ * otherwise, so results are {@link Long} or {@link Double}. Null values are skipped; an empty
+ * list sums to 0 and has no minimum, maximum, average or percentile.
+ */
+final class NumericAggregation {
+    private final int op;
+    private final String opText;
+    private final CompiledExpr selector;
+    private final String selectorText;
+    private final CompiledExpr percent;
+
+    NumericAggregation(RuleFlowLanguageParser.NumericAggregationContext ctx, ExprCompiler compiler) {
+        this.op = ctx.op.getType();
+        this.opText = ctx.op.getText();
+        boolean percentile = op == RuleFlowLanguageLexer.K_PERCENTILE;
+        if (percentile && ctx.percent == null) {
+            throw new IllegalArgumentException("percentile needs a rank between 0 and 100 near " + ctx.getText());
+        } else if (!percentile && ctx.percent != null) {
+            throw new IllegalArgumentException(opText + " takes no rank near " + ctx.getText());
+        }
+        // Selectors run against each item through a visitor of their own, like aggregation predicates
+        this.selector = ctx.selector == null ? null : compiler.rootScope().compile(ctx.selector);
+        this.selectorText = ctx.selector == null ? "it" : ctx.selector.getText();
+        this.percent = ctx.percent == null ? null : compiler.compile(ctx.percent);
+    }
+
+    String getOpText() {
+        return opText;
+    }
+
+    /**
+     * Starts aggregating a list for {@code visitor}, whose root and lists the selector sees.
+     */
+    Accumulation start(Visitor visitor) {
+        double rank = 0;
+        if (percent != null) {
+            rank = toDouble(percent.evaluate(visitor), "percentile rank");
+            if (!(rank >= 0 && rank <= 100)) {
+                throw new IllegalArgumentException("Percentile rank must be between 0 and 100: " + rank);
+            }
+        }
+        return new Accumulation(visitor, rank);
+    }
+
+    private static double toDouble(Object value, String what) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new TypeComparisonException(what + " is not a number: " + value);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * The running state of one aggregation over one list.
+     */
+    final class Accumulation {
+        private final Visitor parent;
+        private final double rank;
+        private ItemFrame frame;
+        private Visitor itemVisitor;
+
+        private long count;
+        private boolean integral = true;
+        private long longSum;
+        private long longMin = Long.MAX_VALUE;
+        private long longMax = Long.MIN_VALUE;
+        private boolean sumOverflowed;
+        private double doubleSum;
+        private double doubleMin = Double.POSITIVE_INFINITY;
+        private double doubleMax = Double.NEGATIVE_INFINITY;
+        // Only kept for percentiles
+        private double[] values;
+
+        private Accumulation(Visitor parent, double rank) {
+            this.parent = parent;
+            this.rank = rank;
+            if (op == RuleFlowLanguageLexer.K_PERCENTILE) {
+                values = new double[16];
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(Object item) {
+            Object value = item;
+            if (selector != null) {
+                if (frame == null) {
+                    frame = new ItemFrame();
+                    itemVisitor = new Visitor(frame, parent.getListIndex(), parent.getRoot(), Map.of());
+                }
+                // Items that are not maps are only reachable as "it"
+                frame.bind(item instanceof Map ? (Map<String, ?>) item : Map.of(), item);
+                value = itemVisitor.evaluate(selector);
+            }
+            if (value == null) {
+                return;
+            }
+            if (integral && isIntegral(value)) {
+                addLong(((Number) value).longValue());
+            } else {
+                addDouble(toDouble(value, selectorText));
+            }
+        }
+
+        private void addLong(long value) {
+            if (values != null) {
+                keep(value);
+            }
+            count++;
+            longMin = Math.min(longMin, value);
+            longMax = Math.max(longMax, value);
+            if (sumOverflowed) {
+                doubleSum += value;
+                return;
+            }
+            try {
+                longSum = Math.addExact(longSum, value);
+            } catch (ArithmeticException e) {
+                sumOverflowed = true;
+                doubleSum = (double) longSum + value;
+            }
+        }
+
+        private void addDouble(double value) {
+            if (integral) {
+                // From here on everything accumulates in doubles
+                integral = false;
+                doubleSum = sumOverflowed ? doubleSum : longSum;
+                if (count > 0) {
+                    doubleMin = longMin;
+                    doubleMax = longMax;
+                }
+            }
+            if (values != null) {
+                keep(value);
+            }
+            count++;
+            doubleSum += value;
+            doubleMin = Math.min(doubleMin, value);
+            doubleMax = Math.max(doubleMax, value);
+        }
+
+        private void keep(double value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[(int) count] = value;
+        }
+
+        Object result() {
+            switch (op) {
+                case RuleFlowLanguageLexer.K_SUM:
+                    return integral && !sumOverflowed ? (Object) longSum : (Object) doubleSum;
+                case RuleFlowLanguageLexer.K_MIN:
+                    return count == 0 ? null : integral ? (Object) longMin : (Object) doubleMin;
+                case RuleFlowLanguageLexer.K_MAX:
+                    return count == 0 ? null : integral ? (Object) longMax : (Object) doubleMax;
+                case RuleFlowLanguageLexer.K_AVG:
+                    if (count == 0) {
+                        return null;
+                    }
+                    return (integral && !sumOverflowed ? (double) longSum : doubleSum) / count;
+                case RuleFlowLanguageLexer.K_PERCENTILE:
+                    return count == 0 ? null : percentile();
+                default:
+                    throw new RuntimeException("Operation not supported: " + opText);
+            }
+        }
+
+        // Linear interpolation between the closest ranks, as spreadsheet PERCENTILE functions do
+        private double percentile() {
+            int n = (int) count;
+            Arrays.sort(values, 0, n);
+            double position = rank / 100 * (n - 1);
+            int lower = (int) Math.floor(position);
+            int upper = Math.min(lower + 1, n - 1);
+            return values[lower] + (position - lower) * (values[upper] - values[lower]);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gatekeeperx.ruleflow.evaluators;
+
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
+import com.gatekeeperx.ruleflow.compiler.AggregationGroups;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class NumericAggregationContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.NumericAggregationContext> {
+    private static final Logger logger = LoggerFactory.getLogger(NumericAggregationContextEvaluator.class);
+
+    @Override
+    public CompiledExpr compile(RuleFlowLanguageParser.NumericAggregationContext ctx, ExprCompiler compiler) {
+        AggregationGroups.Group group = compiler.aggregationGroup(ctx);
+        if (group != null) {
+            FusedAggregations fused = group.compiled(g -> new FusedAggregations(g, compiler));
+            int slot = group.slotOf(ctx);
+            return visitor -> fused.result(visitor, slot);
+        }
+
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
+        String valueText = ctx.value.getText();
+        NumericAggregation aggregation = new NumericAggregation(ctx, compiler);
+
+        return visitor -> {
+            Object value = valueExpr.evaluate(visitor);
+            if (!(value instanceof List<?> list)) {
+                throw new RuntimeException(valueText + " is not a Collection");
+            }
+            NumericAggregation.Accumulation accumulation = aggregation.start(visitor);
+            for (Object item : list) {
+                accumulation.add(item);
+            }
+            Object result = accumulation.result();
+            logger.debug("Aggregation: {} expr={}, result={}", aggregation.getOpText(), valueText, result);
+            return result;
+        };
+    }
+}
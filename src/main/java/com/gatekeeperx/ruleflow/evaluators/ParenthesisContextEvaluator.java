@@ -1,7 +1,9 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ParenthesisContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,9 +11,16 @@ public class ParenthesisContextEvaluator implements ContextEvaluator<Parenthesis
     private static final Logger logger = LoggerFactory.getLogger(ParenthesisContextEvaluator.class);
 
     @Override
-    public Object evaluate(ParenthesisContext ctx, Visitor visitor) {
-        Object result = visitor.visit(ctx.expr());
-        logger.debug("Parenthesis: expr={}, result={}", ctx.expr().getText(), result);
-        return result;
+    public CompiledExpr compile(ParenthesisContext ctx, ExprCompiler compiler) {
+        CompiledExpr expr = compiler.compile(ctx.expr());
+        if (expr instanceof ConstantExpr) {
+            return expr;
+        }
+        String exprText = ctx.expr().getText();
+        return visitor -> {
+            Object result = expr.evaluate(visitor);
+            logger.debug("Parenthesis: expr={}, result={}", exprText, result);
+            return result;
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,14 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.PropertyContext;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 
 public class PropertyContextEvaluator implements ContextEvaluator<PropertyContext> {
-    private static final Logger logger = LoggerFactory.getLogger(PropertyContextEvaluator.class);
+    private static final ValidPropertyContextEvaluator VALID_PROPERTY = new ValidPropertyContextEvaluator();
 
     @Override
-    public Object evaluate(PropertyContext ctx, Visitor visitor) throws PropertyNotFoundException {
-        ValidPropertyContextEvaluator validPropertyCondition = new ValidPropertyContextEvaluator();
-        return validPropertyCondition.evaluate(ctx.validProperty(), visitor);
+    public CompiledExpr compile(PropertyContext ctx, ExprCompiler compiler) {
+        return VALID_PROPERTY.compile(ctx.validProperty(), compiler);
     }
-}
\ No newline at end of file
+}
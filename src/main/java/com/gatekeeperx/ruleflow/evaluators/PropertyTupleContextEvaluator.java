@@ -2,8 +2,8 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.PropertyTupleContext;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ValidPropertyContext;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -13,14 +13,19 @@ public class PropertyTupleContextEvaluator implements ContextEvaluator<PropertyT
     private static final Logger logger = LoggerFactory.getLogger(PropertyTupleContextEvaluator.class);
 
   @Override
-  public Object evaluate(PropertyTupleContext ctx, Visitor visitor)
-      throws PropertyNotFoundException {
-    List<String> propertyValues = new ArrayList<>();
-    for (ValidPropertyContext validPropertContext : ctx.validProperty()){
-      String visit = (String) visitor.visit(validPropertContext);
-      logger.debug("PropertyTuple: propertyName={}", visit);
-      propertyValues.add(visit);
+  public CompiledExpr compile(PropertyTupleContext ctx, ExprCompiler compiler) {
+    List<CompiledExpr> properties = new ArrayList<>();
+    for (ValidPropertyContext validPropertContext : ctx.validProperty()) {
+      properties.add(compiler.compile(validPropertContext));
     }
-    return propertyValues;
+    return visitor -> {
+      List<String> propertyValues = new ArrayList<>();
+      for (CompiledExpr property : properties) {
+        String visit = (String) property.evaluate(visitor);
+        logger.debug("PropertyTuple: propertyName={}", visit);
+        propertyValues.add(visit);
+      }
+      return propertyValues;
+    };
   }
 }
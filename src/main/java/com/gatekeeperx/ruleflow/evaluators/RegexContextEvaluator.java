@@ -1,25 +1,42 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.RegexlikeContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class RegexContextEvaluator implements ContextEvaluator<RegexlikeContext> {
     private static final Logger logger = LoggerFactory.getLogger(RegexContextEvaluator.class);
 
     @Override
-    public Object evaluate(RegexlikeContext ctx, Visitor visitor) {
-        Object value = visitor.visit(ctx.value);
-
+    public CompiledExpr compile(RegexlikeContext ctx, ExprCompiler compiler) {
+        CompiledExpr valueExpr = compiler.compile(ctx.value);
         String regexPattern = ctx.regex.getText().replace("'", "");
-        String input = value.toString();
+        Pattern compiled = null;
+        PatternSyntaxException invalid = null;
+        try {
+            compiled = Pattern.compile(regexPattern);
+        } catch (PatternSyntaxException e) {
+            // Report the invalid pattern when the rule is evaluated, as before
+            invalid = e;
+        }
+        Pattern pattern = compiled;
+        PatternSyntaxException error = invalid;
+        return visitor -> {
+            Object value = valueExpr.evaluate(visitor);
+
+            String input = value.toString();
 
-        Pattern pattern = Pattern.compile(regexPattern);
-        String s = pattern.matcher(input).replaceAll("");
-        logger.debug("Value: '{}' -> '{}'", value, s);
-        return s;
+            if (error != null) {
+                throw error;
+            }
+            String s = pattern.matcher(input).replaceAll("");
+            logger.debug("Value: '{}' -> '{}'", value, s);
+            return s;
+        };
     }
-}
\ No newline at end of file
+}
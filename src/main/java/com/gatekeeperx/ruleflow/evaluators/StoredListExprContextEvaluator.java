@@ -1,20 +1,20 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 
 import java.util.List;
 
 public class StoredListExprContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.StoredListExprContext> {
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.StoredListExprContext ctx, Visitor visitor)
-            throws PropertyNotFoundException, UnexpectedSymbolException {
+    public CompiledExpr compile(RuleFlowLanguageParser.StoredListExprContext ctx, ExprCompiler compiler) {
         String listName = stripQuotes(ctx.listName.getText());
-        List<?> list = visitor.getLists().get(listName);
-        return list != null ? list : List.of();
+        return visitor -> {
+            List<?> list = visitor.getLists().get(listName);
+            return list != null ? list : List.of();
+        };
     }
 
     private String stripQuotes(String quotedString) {
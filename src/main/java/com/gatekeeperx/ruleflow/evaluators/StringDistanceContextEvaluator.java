@@ -1,47 +1,43 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.utils.StringUtils;
+import java.util.function.BiFunction;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class StringDistanceContextEvaluator {
     private static final Logger log = LoggerFactory.getLogger(StringDistanceContextEvaluator.class);
 
-    public Object evaluateStringDistance(RuleFlowLanguageParser.StringDistanceContext ctx, Visitor visitor) {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
-        Object result = StringUtils.stringDistance(left == null ? null : left.toString(), right == null ? null : right.toString());
-        log.debug("evaluateStringDistance: left={}, right={}, result={}", left, right, result);
-        return result;
+    public CompiledExpr compileStringDistance(RuleFlowLanguageParser.StringDistanceContext ctx, ExprCompiler compiler) {
+        return compileScore("evaluateStringDistance", ctx.left, ctx.right, compiler, StringUtils::stringDistance);
     }
-    public Object evaluatePartialRatio(RuleFlowLanguageParser.PartialRatioContext ctx, Visitor visitor) {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
-        Object result = StringUtils.partialRatio(left == null ? null : left.toString(), right == null ? null : right.toString());
-        log.debug("evaluatePartialRatio: left={}, right={}, result={}", left, right, result);
-        return result;
+    public CompiledExpr compilePartialRatio(RuleFlowLanguageParser.PartialRatioContext ctx, ExprCompiler compiler) {
+        return compileScore("evaluatePartialRatio", ctx.left, ctx.right, compiler, StringUtils::partialRatio);
     }
-    public Object evaluateTokenSortRatio(RuleFlowLanguageParser.TokenSortRatioContext ctx, Visitor visitor) {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
-        Object result = StringUtils.tokenSortRatio(left == null ? null : left.toString(), right == null ? null : right.toString());
-        log.debug("evaluateTokenSortRatio: left={}, right={}, result={}", left, right, result);
-        return result;
+    public CompiledExpr compileTokenSortRatio(RuleFlowLanguageParser.TokenSortRatioContext ctx, ExprCompiler compiler) {
+        return compileScore("evaluateTokenSortRatio", ctx.left, ctx.right, compiler, StringUtils::tokenSortRatio);
     }
-    public Object evaluateTokenSetRatio(RuleFlowLanguageParser.TokenSetRatioContext ctx, Visitor visitor) {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
-        Object result = StringUtils.tokenSetRatio(left == null ? null : left.toString(), right == null ? null : right.toString());
-        log.debug("evaluateTokenSetRatio: left={}, right={}, result={}", left, right, result);
-        return result;
+    public CompiledExpr compileTokenSetRatio(RuleFlowLanguageParser.TokenSetRatioContext ctx, ExprCompiler compiler) {
+        return compileScore("evaluateTokenSetRatio", ctx.left, ctx.right, compiler, StringUtils::tokenSetRatio);
     }
-    public Object evaluateStringSimilarityScore(RuleFlowLanguageParser.StringSimilarityScoreContext ctx, Visitor visitor) {
-        Object left = visitor.visit(ctx.left);
-        Object right = visitor.visit(ctx.right);
-        Object result = StringUtils.stringSimilarityScore(left == null ? null : left.toString(), right == null ? null : right.toString());
-        log.debug("evaluateStringSimilarityScore: left={}, right={}, result={}", left, right, result);
-        return result;
+    public CompiledExpr compileStringSimilarityScore(RuleFlowLanguageParser.StringSimilarityScoreContext ctx, ExprCompiler compiler) {
+        return compileScore("evaluateStringSimilarityScore", ctx.left, ctx.right, compiler, StringUtils::stringSimilarityScore);
     }
-}
\ No newline at end of file
+
+    private CompiledExpr compileScore(String name, ParserRuleContext leftCtx, ParserRuleContext rightCtx,
+                                      ExprCompiler compiler, BiFunction<String, String, ?> score) {
+        CompiledExpr leftExpr = compiler.compile(leftCtx);
+        CompiledExpr rightExpr = compiler.compile(rightCtx);
+        return visitor -> {
+            Object left = leftExpr.evaluate(visitor);
+            Object right = rightExpr.evaluate(visitor);
+            Object result = score.apply(left == null ? null : left.toString(), right == null ? null : right.toString());
+            log.debug("{}: left={}, right={}, result={}", name, left, right, result);
+            return result;
+        };
+    }
+}
@@ -3,104 +3,105 @@ package com.gatekeeperx.ruleflow.evaluators;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ValidPropertyContext;
-import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import com.gatekeeperx.ruleflow.lists.StoredList;
 import com.gatekeeperx.ruleflow.visitors.Visitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 public class TupleListContextEvaluator implements ContextEvaluator<RuleFlowLanguageParser.TupleListContext> {
     private static final Logger logger = LoggerFactory.getLogger(TupleListContextEvaluator.class);
 
     @Override
-    public Object evaluate(RuleFlowLanguageParser.TupleListContext ctx, Visitor visitor) throws PropertyNotFoundException {
+    public CompiledExpr compile(RuleFlowLanguageParser.TupleListContext ctx, ExprCompiler compiler) {
         int type = ctx.op.getType();
+        String opText = ctx.op.getText();
         boolean isNegated = ctx.not != null;
 
-        Object result = switch (type) {
-            case RuleFlowLanguageLexer.K_CONTAINS -> (Boolean) evalContains(ctx, visitor);
-            case RuleFlowLanguageLexer.K_IN -> (Boolean) evalIn(ctx, visitor);
-            case RuleFlowLanguageLexer.K_STARTS_WITH -> (Boolean) evalStartsWith(ctx, visitor);
-            default -> throw new RuntimeException("Unknown operation: " + ctx.op.getText());
+        CompiledExpr operation = switch (type) {
+            case RuleFlowLanguageLexer.K_IN -> compileIn(ctx, compiler);
+            // Tuples can only be matched as a whole
+            case RuleFlowLanguageLexer.K_CONTAINS, RuleFlowLanguageLexer.K_STARTS_WITH -> visitor -> {
+                throw new IllegalArgumentException("Operation not supported on tuples: " + opText);
+            };
+            default -> visitor -> {
+                throw new RuntimeException("Unknown operation: " + opText);
+            };
         };
 
-        Object finalResult = isNegated ? !((Boolean) result) : result;
-        logger.debug("TupleList: op={}, not={}, result={}", ctx.op.getText(), isNegated, finalResult);
-        return finalResult;
+        return visitor -> {
+            Object result = operation.evaluate(visitor);
+            Object finalResult = isNegated ? !((Boolean) result) : result;
+            logger.debug("TupleList: op={}, not={}, result={}", opText, isNegated, finalResult);
+            return finalResult;
+        };
     }
 
-    private Object evalIn(RuleFlowLanguageParser.TupleListContext ctx, Visitor visitor) {
-        List<String> inputTuple = resolvePropertyTuple(visitor, ctx.propertyTuple().validProperty());
+    private CompiledExpr compileIn(RuleFlowLanguageParser.TupleListContext ctx, ExprCompiler compiler) {
+        List<CompiledExpr> properties = compilePropertyTuple(compiler, ctx.propertyTuple().validProperty());
 
         if (ctx.values.literalTupleList != null) {
             List<String> literals = ctx.values.string_literal().stream()
                 .map(lit -> lit.getText().replace("'", ""))
                 .collect(Collectors.toList());
-            List<List<String>> tuples = resolveLiteralTuples(literals, inputTuple.size());
-            return tuples.stream().anyMatch(tuple -> tuple.equals(inputTuple));
+            // The tuple width is the number of properties, so tuples are grouped once
+            List<List<String>> tuples;
+            try {
+                tuples = resolveLiteralTuples(literals, properties.size());
+            } catch (IllegalArgumentException e) {
+                return visitor -> {
+                    resolvePropertyTuple(visitor, properties);
+                    throw e;
+                };
+            }
+            return visitor -> {
+                List<String> inputTuple = resolvePropertyTuple(visitor, properties);
+                return tuples.stream().anyMatch(tuple -> tuple.equals(inputTuple));
+            };
 
         } else if (ctx.values.storedList != null) {
             String listKey = ctx.values.string_literal(0).getText().replace("'", "");
-            List<?> stored = visitor.getLists().get(listKey);
-            
-            if (stored == null || stored.isEmpty()) {
-                return false;
-            }
+            return visitor -> {
+                List<String> inputTuple = resolvePropertyTuple(visitor, properties);
+                StoredList storedList = visitor.getListIndex().get(listKey);
 
-            // Check if elements are Lists (original format)
-            if (stored.stream().allMatch(i -> i instanceof List<?> tuple && tuple.size() == inputTuple.size())) {
-                return stored.stream().map(i -> (List<?>) i)
-                    .anyMatch(tuple -> {
-                        for (int i = 0; i < tuple.size(); i++) {
-                            if (!tuple.get(i).equals(inputTuple.get(i))) {
-                                return false;
-                            }
-                        }
-                        return true;
-                    });
-            }
-            
-            // Check if elements are Maps (new format with field names)
-            if (stored.stream().allMatch(i -> i instanceof Map<?, ?> map && map.size() == inputTuple.size())) {
-                return stored.stream().map(i -> (Map<?, ?>) i)
-                    .anyMatch(map -> {
-                        // Extract values in iteration order (preserves fieldNames order for LinkedHashMap)
-                        List<String> mapValues = map.values().stream()
-                            .map(Object::toString)
-                            .collect(Collectors.toList());
-                        return mapValues.equals(inputTuple);
-                    });
-            }
-            
-            return false;
+                if (storedList == null || storedList.isEmpty()) {
+                    return false;
+                }
+                // Lists (original format) or Maps keyed in field order (new format with field names)
+                return storedList.containsTuple(inputTuple);
+            };
 
         } else if (ctx.values.validProperty() != null) {
-            List<?> values = (List<?>) visitor.visit(ctx.values.validProperty());
-            return values.contains(null);
+            CompiledExpr validProperty = compiler.compile(ctx.values.validProperty());
+            return visitor -> {
+                resolvePropertyTuple(visitor, properties);
+                List<?> values = (List<?>) validProperty.evaluate(visitor);
+                return values.contains(null);
+            };
         }
 
-        throw new RuntimeException("Unsupported value type: " + ctx.values);
-    }
-
-    private Object evalContains(RuleFlowLanguageParser.TupleListContext ctx, Visitor visitor) {
-        Object value = visitor.visit(ctx);
-        List<String> values = resolveStringList(ctx, visitor);
-        return values.stream().anyMatch(val -> value.toString().contains(val));
+        String valuesText = String.valueOf(ctx.values);
+        return visitor -> {
+            resolvePropertyTuple(visitor, properties);
+            throw new RuntimeException("Unsupported value type: " + valuesText);
+        };
     }
 
-    private Object evalStartsWith(RuleFlowLanguageParser.TupleListContext ctx, Visitor visitor) throws PropertyNotFoundException {
-        Object value = visitor.visit(ctx.values);
-        List<String> values = resolveStringList(ctx, visitor);
-        return values.stream().anyMatch(val -> value.toString().startsWith(val));
+    private List<CompiledExpr> compilePropertyTuple(ExprCompiler compiler, List<ValidPropertyContext> properties) {
+        return properties.stream()
+            .map(compiler::compile)
+            .collect(Collectors.toList());
     }
 
-    private List<String> resolvePropertyTuple(Visitor visitor, List<ValidPropertyContext> properties) {
+    private List<String> resolvePropertyTuple(Visitor visitor, List<CompiledExpr> properties) {
         return properties.stream()
-            .map(visitor::visit)
+            .map(property -> property.evaluate(visitor))
             .map(String.class::cast)
             .collect(Collectors.toList());
     }
@@ -112,24 +113,8 @@ public class TupleListContextEvaluator implements ContextEvaluator<RuleFlowLangu
 
         List<List<String>> tuples = new ArrayList<>();
         for (int i = 0; i < literals.size(); i += tupleSize) {
-            tuples.add(new ArrayList<>(literals.subList(i, i + tupleSize)));
+            tuples.add(List.copyOf(literals.subList(i, i + tupleSize)));
         }
         return tuples;
     }
-
-    private List<String> resolveStringList(RuleFlowLanguageParser.TupleListContext context, Visitor visitor) {
-        if (context.values != null) {
-            return context.values.string_literal().stream()
-                .map(lit -> lit.getText().replace("'", ""))
-                .collect(Collectors.toList());
-        } else if (context.values.storedList != null) {
-            if (context.values.string_literal().isEmpty()) {
-                throw new RuntimeException("Expected at least one string literal in stored list");
-            }
-            List<?> listKey = visitor.getLists().get(context.values.storedList.getText());
-            return listKey != null ? listKey.stream().map(Object::toString).collect(Collectors.toList()) : List.of();
-        } else {
-            throw new RuntimeException("Unknown list type");
-        }
-    }
 }
@@ -2,7 +2,9 @@ package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.UnaryContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,8 +12,21 @@ public class UnaryContextEvaluator implements ContextEvaluator<UnaryContext> {
     private static final Logger logger = LoggerFactory.getLogger(UnaryContextEvaluator.class);
 
     @Override
-    public Object evaluate(UnaryContext ctx, Visitor visitor) {
-        Object valLeft = visitor.visit(ctx.left);
+    public CompiledExpr compile(UnaryContext ctx, ExprCompiler compiler) {
+        CompiledExpr leftExpr = compiler.compile(ctx.left);
+        int op = ctx.op.getType();
+        String opText = ctx.op.getText();
+        if (leftExpr instanceof ConstantExpr constant) {
+            try {
+                return new ConstantExpr(apply(op, opText, constant.getValue()));
+            } catch (RuntimeException e) {
+                // Not foldable; report it when the rule is evaluated
+            }
+        }
+        return visitor -> apply(op, opText, leftExpr.evaluate(visitor));
+    }
+
+    private Object apply(int op, String opText, Object valLeft) {
         Double left = toDoubleOrNull(valLeft.toString());
 
         if (left == null) {
@@ -19,14 +34,14 @@ public class UnaryContextEvaluator implements ContextEvaluator<UnaryContext> {
         }
 
         Object result;
-        switch (ctx.op.getType()) {
+        switch (op) {
             case RuleFlowLanguageLexer.ABS:
                 result = Math.abs(left);
                 break;
             default:
-                throw new IllegalArgumentException("Operation not supported: " + ctx.op.getText());
+                throw new IllegalArgumentException("Operation not supported: " + opText);
         }
-        logger.debug("Unary: op={}, left={}, result={}", ctx.op.getText(), left, result);
+        logger.debug("Unary: op={}, left={}, result={}", opText, left, result);
         return result;
     }
 
@@ -37,4 +52,4 @@ public class UnaryContextEvaluator implements ContextEvaluator<UnaryContext> {
             return null;
         }
     }
-}
\ No newline at end of file
+}
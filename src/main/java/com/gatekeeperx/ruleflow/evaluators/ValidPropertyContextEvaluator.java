@@ -1,74 +1,94 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
+import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.PropertyNameContext;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ValidPropertyContext;
+import com.gatekeeperx.ruleflow.binding.PropertyKey;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class ValidPropertyContextEvaluator implements ContextEvaluator<ValidPropertyContext> {
     private static final Logger logger = LoggerFactory.getLogger(ValidPropertyContextEvaluator.class);
 
     @Override
-    public Object evaluate(ValidPropertyContext ctx, Visitor visitor) throws PropertyNotFoundException {
+    public CompiledExpr compile(ValidPropertyContext ctx, ExprCompiler compiler) {
         String property = ctx.getText();
-        Object result = visitor.getData().get(property);
-        logger.debug("ValidProperty: property={}, result={}", property, result);
+        boolean root = ctx.root != null;
         if (ctx.property != null) {
-            String fieldName = getFirstTokenText(ctx);
-            Map<String, ?> propData = (ctx.root != null) ? visitor.getRoot() : visitor.getData();
-            Object fieldResult = propData.get(fieldName);
-            logger.debug("ValidProperty simple: fieldName={}, root={}, result={}", fieldName, ctx.root != null, fieldResult);
-            if (fieldResult == null) {
-                throw new PropertyNotFoundException(fieldName + " field cannot be found");
-            }
-            return fieldResult;
+            String fieldName = ctx.property.getText();
+            PropertyKey key = new PropertyKey(fieldName);
+            PropertyNotFoundException missing = PropertyNotFoundException.stackless(fieldName + " field cannot be found");
+            return visitor -> {
+                Map<String, ?> propData = root ? visitor.getRoot() : visitor.getData();
+                Object fieldResult = key.get(propData);
+                logger.debug("ValidProperty simple: fieldName={}, root={}, result={}", fieldName, root, fieldResult);
+                if (fieldResult == null) {
+                    throw missing;
+                }
+                return fieldResult;
+            };
         } else if (ctx.nestedProperty != null) {
-            Map<String, ?> data = (ctx.root != null) ? visitor.getRoot() : visitor.getData();
-            return getNestedValue(ctx, data);
+            String[] tokens = pathTokens(ctx);
+            // Resolved once: reads walk the interned keys without rebuilding the path
+            PropertyKey[] path = PropertyKey.path(tokens);
+            PropertyNotFoundException[] missing = new PropertyNotFoundException[path.length + 1];
+            for (int i = 0; i < path.length; i++) {
+                missing[i] = PropertyNotFoundException.stackless(tokens[i] + " field cannot be found");
+            }
+            missing[path.length] = PropertyNotFoundException.stackless(property + " cannot be found");
+            return visitor -> {
+                Map<String, ?> data = root ? visitor.getRoot() : visitor.getData();
+                Object result = getNestedValue(path, missing, data);
+                logger.debug("ValidProperty: property={}, result={}", property, result);
+                return result;
+            };
         } else {
-            throw new PropertyNotFoundException(ctx.getText() + " field cannot be found");
+            PropertyNotFoundException missing = PropertyNotFoundException.stackless(property + " field cannot be found");
+            return visitor -> {
+                throw missing;
+            };
         }
     }
 
-    private String getFirstTokenText(ValidPropertyContext ctx) {
-        if (ctx.K_ELEM().size() > 0) {
-            return ctx.K_ELEM(0).getText();
-        } else if (ctx.ID().size() > 0) {
-            return ctx.ID(0).getText();
+    /**
+     * The names of a property path. K_ELEM names are walked before the identifiers.
+     */
+    static String[] pathTokens(ValidPropertyContext ctx) {
+        List<String> tokens = new ArrayList<>();
+        for (PropertyNameContext name : ctx.propertyName()) {
+            if (name.K_ELEM() != null) {
+                tokens.add(name.getText());
+            }
         }
-        return "";
+        for (PropertyNameContext name : ctx.propertyName()) {
+            if (name.identifier() != null) {
+                tokens.add(name.getText());
+            }
+        }
+        return tokens.toArray(new String[0]);
     }
 
     @SuppressWarnings("unchecked")
-    private Object getNestedValue(ValidPropertyContext ctx, Map<String, ?> data) throws PropertyNotFoundException {
+    private Object getNestedValue(PropertyKey[] path, PropertyNotFoundException[] missing, Map<String, ?> data) {
         Map<String, ?> currentData = data;
-        // Process all tokens (both K_ELEM and ID) in order
-        for (int i = 0; i < ctx.K_ELEM().size(); i++) {
-            String tokenText = ctx.K_ELEM(i).getText();
-            Object value = currentData.get(tokenText);
-            if (value instanceof Map<?, ?>) {
-                currentData = (Map<String, ?>) value;
-            } else {
-                if (value == null) {
-                    throw new PropertyNotFoundException(tokenText + " field cannot be found");
-                }
-                return value;
-            }
-        }
-        for (var id : ctx.ID()) {
-            Object value = currentData.get(id.getText());
+        for (int i = 0; i < path.length; i++) {
+            Object value = path[i].get(currentData);
             if (value instanceof Map<?, ?>) {
                 currentData = (Map<String, ?>) value;
             } else {
                 if (value == null) {
-                    throw new PropertyNotFoundException(id.getText() + " field cannot be found");
+                    throw missing[i];
                 }
                 return value;
             }
         }
-        throw new PropertyNotFoundException(ctx.getText() + " cannot be found");
+        // missing[path.length] reports a path that ends on a map
+        throw missing[path.length];
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,10 @@
 package com.gatekeeperx.ruleflow.evaluators;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser.ValueContext;
-import com.gatekeeperx.ruleflow.visitors.Visitor;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.ConstantExpr;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import org.antlr.v4.runtime.Token;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,22 +15,26 @@ public class ValueContextEvaluator implements ContextEvaluator<ValueContext> {
     private static final Logger logger = LoggerFactory.getLogger(ValueContextEvaluator.class);
 
     @Override
-    public Object evaluate(ValueContext ctx, Visitor visitor) {
-        Object result;
+    public CompiledExpr compile(ValueContext ctx, ExprCompiler compiler) {
+        String text = ctx.getText();
+        // Literals are decoded once; only the current date depends on the evaluation
         if (ctx.validValue().string != null) {
-            result = (ctx.validValue().string.getText()).replace("'", "");
+            return new ConstantExpr(ctx.validValue().string.getText().replace("'", ""));
         } else if (ctx.validValue().number != null) {
-            result = Double.valueOf(ctx.validValue().number.getText());
+            return new ConstantExpr(Double.valueOf(ctx.validValue().number.getText()));
         } else if (ctx.validValue().nullValue != null) {
-            result = ctx.validValue().nullValue;
+            Token nullValue = ctx.validValue().nullValue;
+            return new ConstantExpr(nullValue);
         } else if (ctx.validValue().currentDate != null) {
-            result = LocalDateTime.now();
+            return visitor -> {
+                Object result = LocalDateTime.now();
+                logger.debug("Value: ctx={}, result={}", text, result);
+                return result;
+            };
         } else if (ctx.validValue().booleanLiteral != null) {
-            result = Boolean.parseBoolean(ctx.validValue().booleanLiteral.getText());
+            return new ConstantExpr(Boolean.parseBoolean(ctx.validValue().booleanLiteral.getText()));
         } else {
-            throw new IllegalArgumentException("Value not supported: " + ctx.getText());
+            throw new IllegalArgumentException("Value not supported: " + text);
         }
-        logger.debug("Value: ctx={}, result={}", ctx.getText(), result);
-        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.gatekeeperx.ruleflow.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a custom function call, including calls answered from the
+ * per-request function call cache.
+ */
+@Name("com.gatekeeperx.ruleflow.CustomFunctionCalled")
+@Label("Custom Function Called")
+@Category("Ruleflow")
+@Description("A custom function called from a workflow expression")
+@StackTrace(false)
+public class CustomFunctionCalled extends Event {
+    @Label("Function")
+    String function;
+
+    @Label("Cache Hit")
+    boolean cacheHit;
+
+    public void end(String function, boolean cacheHit) {
+        end();
+        if (shouldCommit()) {
+            this.function = function;
+            this.cacheHit = cacheHit;
+            commit();
+        }
+    }
+}
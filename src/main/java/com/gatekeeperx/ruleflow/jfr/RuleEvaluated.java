@@ -0,0 +1,49 @@
+package com.gatekeeperx.ruleflow.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one rule evaluation. Only rules slower than the threshold,
+ * 1 ms unless the recording configures another, are recorded.
+ */
+@Name("com.gatekeeperx.ruleflow.RuleEvaluated")
+@Label("Rule Evaluated")
+@Category("Ruleflow")
+@Description("A rule whose evaluation took longer than the threshold")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RuleEvaluated extends Event {
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Ruleset")
+    String ruleset;
+
+    @Label("Rule")
+    String rule;
+
+    @Label("Matched")
+    boolean matched;
+
+    @Label("Warning")
+    @Description("Category of the warning raised by the rule, or NONE")
+    String warning;
+
+    public void end(String workflow, String ruleset, String rule, boolean matched, String warning) {
+        end();
+        if (shouldCommit()) {
+            this.workflow = workflow;
+            this.ruleset = ruleset;
+            this.rule = rule;
+            this.matched = matched;
+            this.warning = warning;
+            commit();
+        }
+    }
+}
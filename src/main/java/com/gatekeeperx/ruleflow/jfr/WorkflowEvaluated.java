@@ -0,0 +1,47 @@
+package com.gatekeeperx.ruleflow.jfr;
+
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one request evaluated against a workflow.
+ */
+@Name("com.gatekeeperx.ruleflow.WorkflowEvaluated")
+@Label("Workflow Evaluated")
+@Category("Ruleflow")
+@Description("A request evaluated against a workflow")
+@StackTrace(false)
+public class WorkflowEvaluated extends Event {
+    @Label("Workflow")
+    String workflow;
+
+    @Label("Ruleset")
+    @Description("Ruleset of the matched rule, or default")
+    String ruleset;
+
+    @Label("Rule")
+    @Description("Matched rule, or default")
+    String rule;
+
+    @Label("Warning Count")
+    int warningCount;
+
+    /**
+     * Ends the event and commits it with the result's details when it is being recorded.
+     */
+    public void end(WorkflowResult result) {
+        end();
+        if (shouldCommit()) {
+            workflow = result.getWorkflow();
+            ruleset = result.getRuleSet();
+            rule = result.getRule();
+            warningCount = result.getWarnings() != null ? result.getWarnings().size() : 0;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.gatekeeperx.ruleflow.lists;
+
+import com.gatekeeperx.ruleflow.utils.AhoCorasick;
+import com.gatekeeperx.ruleflow.utils.PrefixTrie;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A registered stored list with its lookup indexes.
+ * <p>
+ * Elements are either scalars, compared by their string form, or maps (records with
+ * named fields). Indexes are built lazily on first use and are immutable afterwards,
+ * so a stored list can be shared by concurrent evaluations. An unindexed list answers
+ * the same lookups by scanning its elements.
+ */
+public final class StoredList {
+    private final List<?> items;
+    private final boolean indexed;
+    private final Map<String, Map<Object, List<Map<?, ?>>>> fieldIndexes = new ConcurrentHashMap<>();
+    private final Map<KeyedField, Optional<Map<Object, List<Map<?, ?>>>>> keyedFieldIndexes = new ConcurrentHashMap<>();
+    private final Map<Integer, TupleIndex> tupleIndexes = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> fields = new ConcurrentHashMap<>();
+    private volatile Membership membership;
+    private volatile AhoCorasick substrings;
+    private volatile PrefixTrie prefixes;
+
+    StoredList(List<?> items, boolean indexed) {
+        this.items = items;
+        this.indexed = indexed;
+    }
+
+    public List<?> getItems() {
+        return items;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Whether lookups go through indexes, or scan the elements.
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Whether {@code value} equals the string form of a scalar element, or any field value
+     * of a map element.
+     */
+    public boolean contains(String value) {
+        if (!indexed) {
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> map ? map.containsValue(value) : item != null && item.toString().equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Membership index = membership();
+        return index.scalars.contains(value) || index.mapValues.contains(value);
+    }
+
+    /**
+     * Whether {@code text} contains the string form of any scalar element, or of any field
+     * value of a map element. Answered in one pass over {@code text}.
+     */
+    public boolean anyContainedIn(String text) {
+        if (!indexed) {
+            return anyElementString(text::contains);
+        }
+        AhoCorasick automaton = substrings;
+        if (automaton == null) {
+            automaton = AhoCorasick.of(elementStrings());
+            substrings = automaton;
+        }
+        return automaton.matchesAny(text);
+    }
+
+    /**
+     * Whether {@code value} starts with the string form of any scalar element, or of any
+     * field value of a map element. Costs O(length of {@code value}).
+     */
+    public boolean anyPrefixOf(String value) {
+        if (!indexed) {
+            return anyElementString(value::startsWith);
+        }
+        PrefixTrie trie = prefixes;
+        if (trie == null) {
+            trie = PrefixTrie.of(elementStrings());
+            prefixes = trie;
+        }
+        return trie.matchesPrefixOf(value);
+    }
+
+    /**
+     * Whether {@code tuple} is one of the list's tuples. Elements are tuples when they are
+     * all lists of the same width as {@code tuple}, compared element by element, or all maps
+     * with that many fields, compared by the string form of their values in iteration order
+     * (field order for a {@link java.util.LinkedHashMap}). Any other list holds no tuples.
+     *
+     * @throws RuntimeException when {@code tuple} is not found and a map element has a null
+     *         value, which cannot be compared
+     */
+    public boolean containsTuple(List<String> tuple) {
+        if (!indexed) {
+            int width = tuple.size();
+            if (items.stream().allMatch(i -> i instanceof List<?> list && list.size() == width)) {
+                return items.stream().anyMatch(tuple::equals);
+            }
+            if (items.stream().allMatch(i -> i instanceof Map<?, ?> map && map.size() == width)) {
+                boolean nullValues = false;
+                for (Object item : items) {
+                    List<String> key = mapTuple((Map<?, ?>) item);
+                    if (key == null) {
+                        nullValues = true;
+                    } else if (tuple.equals(key)) {
+                        return true;
+                    }
+                }
+                return notFound(nullValues);
+            }
+            return false;
+        }
+        TupleIndex index = tupleIndexes.computeIfAbsent(tuple.size(), this::buildTupleIndex);
+        return index.tuples.contains(tuple) || notFound(index.nullValues);
+    }
+
+    private static boolean notFound(boolean nullValues) {
+        if (nullValues) {
+            throw new RuntimeException("Stored list tuple has a null value");
+        }
+        return false;
+    }
+
+    /**
+     * Whether any map element has {@code field}, even with a null value.
+     */
+    public boolean hasField(String field) {
+        return fields.computeIfAbsent(field,
+            key -> items.stream().anyMatch(item -> item instanceof Map<?, ?> map && map.containsKey(key)));
+    }
+
+    /**
+     * Map elements grouped by the value of {@code field}. Elements without the field are
+     * left out; groups keep the list order.
+     */
+    public Map<Object, List<Map<?, ?>>> fieldIndex(String field) {
+        return fieldIndexes.computeIfAbsent(field, this::buildFieldIndex);
+    }
+
+    /**
+     * Map elements grouped by {@code key} of the value of {@code field}, for lookups under an
+     * equality other than {@link Object#equals}. Elements without the field or with a null value
+     * are left out; groups keep the list order. Returns {@code null} when {@code key} returns
+     * {@code null} for some value, as the list cannot then be looked up by that key.
+     * <p>
+     * Indexes are cached per field and key function, so {@code key} should be a constant.
+     */
+    public Map<Object, List<Map<?, ?>>> fieldIndex(String field, Function<Object, Object> key) {
+        return keyedFieldIndexes.computeIfAbsent(new KeyedField(field, key), this::buildKeyedFieldIndex)
+            .orElse(null);
+    }
+
+    private Membership membership() {
+        Membership index = membership;
+        if (index == null) {
+            // Building twice under contention is harmless; both results are equal
+            index = new Membership(items);
+            membership = index;
+        }
+        return index;
+    }
+
+    private List<String> elementStrings() {
+        List<String> strings = new ArrayList<>();
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> map) {
+                for (Object value : map.values()) {
+                    if (value != null) {
+                        strings.add(value.toString());
+                    }
+                }
+            } else if (item != null) {
+                strings.add(item.toString());
+            }
+        }
+        return strings;
+    }
+
+    private boolean anyElementString(Predicate<String> test) {
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> map) {
+                for (Object value : map.values()) {
+                    if (value != null && test.test(value.toString())) {
+                        return true;
+                    }
+                }
+            } else if (item != null && test.test(item.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TupleIndex buildTupleIndex(int width) {
+        Set<List<?>> index = new HashSet<>();
+        boolean nullValues = false;
+        if (items.stream().allMatch(i -> i instanceof List<?> tuple && tuple.size() == width)) {
+            for (Object item : items) {
+                index.add(new ArrayList<>((List<?>) item));
+            }
+        } else if (items.stream().allMatch(i -> i instanceof Map<?, ?> map && map.size() == width)) {
+            for (Object item : items) {
+                List<String> key = mapTuple((Map<?, ?>) item);
+                if (key != null) {
+                    index.add(key);
+                } else {
+                    nullValues = true;
+                }
+            }
+        }
+        return new TupleIndex(Collections.unmodifiableSet(index), nullValues);
+    }
+
+    // The string form of a map's values, or null when one is null
+    private static List<String> mapTuple(Map<?, ?> map) {
+        List<String> tuple = new ArrayList<>(map.size());
+        for (Object value : map.values()) {
+            if (value == null) {
+                return null;
+            }
+            tuple.add(value.toString());
+        }
+        return tuple;
+    }
+
+    private Map<Object, List<Map<?, ?>>> buildFieldIndex(String field) {
+        Map<Object, List<Map<?, ?>>> index = new HashMap<>();
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> map && map.containsKey(field)) {
+                index.computeIfAbsent(map.get(field), key -> new ArrayList<>()).add(map);
+            }
+        }
+        index.replaceAll((key, group) -> Collections.unmodifiableList(group));
+        return Collections.unmodifiableMap(index);
+    }
+
+    private Optional<Map<Object, List<Map<?, ?>>>> buildKeyedFieldIndex(KeyedField keyedField) {
+        Map<Object, List<Map<?, ?>>> index = new HashMap<>();
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> map) {
+                Object value = map.get(keyedField.field);
+                if (value == null) {
+                    continue;
+                }
+                Object key = keyedField.key.apply(value);
+                if (key == null) {
+                    return Optional.empty();
+                }
+                index.computeIfAbsent(key, k -> new ArrayList<>()).add(map);
+            }
+        }
+        index.replaceAll((key, group) -> Collections.unmodifiableList(group));
+        return Optional.of(Collections.unmodifiableMap(index));
+    }
+
+    private record KeyedField(String field, Function<Object, Object> key) { }
+
+    private record TupleIndex(Set<List<?>> tuples, boolean nullValues) { }
+
+    private static final class Membership {
+        private final Set<String> scalars = new HashSet<>();
+        private final Set<Object> mapValues = new HashSet<>();
+
+        Membership(List<?> items) {
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> map) {
+                    mapValues.addAll(map.values());
+                } else if (item != null) {
+                    scalars.add(item.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.gatekeeperx.ruleflow.lists;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stored lists registered for workflow evaluation, by name.
+ * <p>
+ * Build one index when the lists are loaded and pass it to every
+ * {@link com.gatekeeperx.ruleflow.Workflow#evaluate(Map, StoredListIndex)} call: the lookup
+ * structures of each {@link StoredList} are built on first use and then shared by all
+ * evaluations and threads. The registered lists must not be modified afterwards.
+ * <p>
+ * Lists that only serve one call are wrapped with {@link #unindexed(Map)} instead, which
+ * scans them as a plain list would: building an index costs more than the lookups it saves.
+ */
+public final class StoredListIndex {
+    private static final StoredListIndex EMPTY = new StoredListIndex(Map.of(), true);
+
+    private final Map<String, List<?>> lists;
+    private final boolean indexed;
+    private final Map<String, StoredList> storedLists = new ConcurrentHashMap<>();
+
+    private StoredListIndex(Map<String, List<?>> lists, boolean indexed) {
+        this.lists = lists;
+        this.indexed = indexed;
+    }
+
+    public static StoredListIndex of(Map<String, List<?>> lists) {
+        return lists == null || lists.isEmpty() ? EMPTY : new StoredListIndex(lists, true);
+    }
+
+    /**
+     * Wraps lists passed for a single call. Lookups scan the lists and build no index.
+     */
+    public static StoredListIndex unindexed(Map<String, List<?>> lists) {
+        return lists == null || lists.isEmpty() ? EMPTY : new StoredListIndex(lists, false);
+    }
+
+    public static StoredListIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the stored list registered under {@code name}, or {@code null} when there is none.
+     */
+    public StoredList get(String name) {
+        List<?> items = lists.get(name);
+        if (items == null) {
+            return null;
+        }
+        return storedLists.computeIfAbsent(name, key -> new StoredList(items, indexed));
+    }
+
+    /**
+     * Returns the registered lists as they were given.
+     */
+    public Map<String, List<?>> asMap() {
+        return lists;
+    }
+}
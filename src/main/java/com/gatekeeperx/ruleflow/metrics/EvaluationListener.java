@@ -0,0 +1,35 @@
+package com.gatekeeperx.ruleflow.metrics;
+
+/**
+ * Receives the outcome and latency of every ruleset condition and rule evaluated by a
+ * {@link com.gatekeeperx.ruleflow.Workflow} created with
+ * {@link com.gatekeeperx.ruleflow.Workflow#withListener(EvaluationListener)}.
+ * <p>
+ * Callbacks run synchronously on the evaluating thread, possibly from many threads at once,
+ * so implementations must be thread-safe and cheap. Workflows without a listener skip the
+ * clock reads and callbacks entirely.
+ */
+public interface EvaluationListener {
+
+    /**
+     * Called after a ruleset condition is evaluated. Rulesets without a condition are not reported.
+     *
+     * @param nanos    time spent evaluating the condition
+     * @param matched  whether the condition held, so the ruleset's rules were evaluated
+     * @param category {@link WarningCategory#NONE} unless evaluation failed with a warning
+     */
+    default void rulesetEvaluated(String workflow, String ruleset, long nanos, boolean matched,
+                                  WarningCategory category) {
+    }
+
+    /**
+     * Called after a rule is evaluated, including its {@code set} clauses and actions when it matched.
+     *
+     * @param nanos    time spent on the rule
+     * @param matched  whether the rule's condition held
+     * @param category {@link WarningCategory#NONE} unless evaluation failed with a warning
+     */
+    default void ruleEvaluated(String workflow, String ruleset, String rule, long nanos, boolean matched,
+                               WarningCategory category) {
+    }
+}
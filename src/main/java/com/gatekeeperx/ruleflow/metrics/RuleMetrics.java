@@ -0,0 +1,138 @@
+package com.gatekeeperx.ruleflow.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link EvaluationListener} that keeps lock-free evaluation, match and warning counters and a
+ * {@link LatencyHistogram} per ruleset condition and per rule. Take a {@link #snapshot()} to
+ * export them.
+ */
+public class RuleMetrics implements EvaluationListener {
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void rulesetEvaluated(String workflow, String ruleset, long nanos, boolean matched,
+                                 WarningCategory category) {
+        statsFor(workflow, ruleset, null).record(nanos, matched, category);
+    }
+
+    @Override
+    public void ruleEvaluated(String workflow, String ruleset, String rule, long nanos, boolean matched,
+                              WarningCategory category) {
+        statsFor(workflow, ruleset, rule).record(nanos, matched, category);
+    }
+
+    /**
+     * Returns the current figures of every ruleset condition and rule evaluated so far.
+     */
+    public List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(stats.size());
+        stats.forEach((key, value) -> entries.add(value.snapshot(key)));
+        return entries;
+    }
+
+    private Stats statsFor(String workflow, String ruleset, String rule) {
+        Key key = new Key(workflow, ruleset, rule);
+        Stats existing = stats.get(key);
+        return existing != null ? existing : stats.computeIfAbsent(key, k -> new Stats());
+    }
+
+    private record Key(String workflow, String ruleset, String rule) {
+    }
+
+    private static final class Stats {
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder[] warnings = new LongAdder[WarningCategory.values().length];
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Stats() {
+            for (int i = 0; i < warnings.length; i++) {
+                warnings[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos, boolean matched, WarningCategory category) {
+            evaluations.increment();
+            if (matched) {
+                matches.increment();
+            }
+            if (category != WarningCategory.NONE) {
+                warnings[category.ordinal()].increment();
+            }
+            latency.record(nanos);
+        }
+
+        Entry snapshot(Key key) {
+            long[] warningCounts = new long[warnings.length];
+            for (int i = 0; i < warnings.length; i++) {
+                warningCounts[i] = warnings[i].sum();
+            }
+            return new Entry(key.workflow(), key.ruleset(), key.rule(), evaluations.sum(), matches.sum(),
+                warningCounts, latency.snapshot());
+        }
+    }
+
+    /**
+     * Figures for one ruleset condition, where {@link #getRule()} is {@code null}, or one rule.
+     */
+    public static final class Entry {
+        private final String workflow;
+        private final String ruleset;
+        private final String rule;
+        private final long evaluations;
+        private final long matches;
+        private final long[] warnings;
+        private final LatencyHistogram.Snapshot latency;
+
+        Entry(String workflow, String ruleset, String rule, long evaluations, long matches, long[] warnings,
+              LatencyHistogram.Snapshot latency) {
+            this.workflow = workflow;
+            this.ruleset = ruleset;
+            this.rule = rule;
+            this.evaluations = evaluations;
+            this.matches = matches;
+            this.warnings = warnings;
+            this.latency = latency;
+        }
+
+        public String getWorkflow() {
+            return workflow;
+        }
+
+        public String getRuleset() {
+            return ruleset;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+
+        public long getWarnings(WarningCategory category) {
+            return warnings[category.ordinal()];
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{workflow='" + workflow + "', ruleset='" + ruleset + "', rule='" + rule +
+                "', evaluations=" + evaluations + ", matches=" + matches +
+                ", p99=" + latency.getValueAtPercentile(99) + "ns}";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gatekeeperx.ruleflow.metrics;
+
+/**
+ * Why a ruleset condition or rule produced a warning instead of a plain match or no-match.
+ */
+public enum WarningCategory {
+    NONE,
+    PROPERTY_NOT_FOUND,
+    UNEXPECTED_SYMBOL,
+    ACTION_PARAMETER_RESOLUTION,
+    TYPE_COMPARISON,
+    UNEXPECTED_ERROR
+}
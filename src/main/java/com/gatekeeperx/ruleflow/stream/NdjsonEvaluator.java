@@ -0,0 +1,253 @@
+package com.gatekeeperx.ruleflow.stream;
+
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Scores newline-delimited JSON requests against a {@link Workflow} and writes one JSON
+ * {@link WorkflowResult} per request, in input order.
+ * <p>
+ * Input is read a window of lines at a time, so memory is bounded by the window size rather
+ * than the input size. With an executor, each window is split into chunks that are parsed,
+ * evaluated and serialized in parallel; the window is written once all its chunks finish.
+ * Blank lines are skipped. A line that is not a JSON object produces
+ * {@code {"line": n, "error": "..."}} in its place.
+ */
+public class NdjsonEvaluator {
+    static final int DEFAULT_WINDOW_SIZE = 1024;
+    // Mapped one region at a time to bound address space on very large files
+    static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+    private static final Type REQUEST_TYPE = new TypeToken<Map<String, Object>>() { }.getType();
+    private static final Gson GSON = new GsonBuilder()
+        .serializeSpecialFloatingPointValues()
+        .registerTypeHierarchyAdapter(TemporalAccessor.class,
+            (JsonSerializer<TemporalAccessor>) (value, type, context) -> new JsonPrimitive(value.toString()))
+        .create();
+
+    private final Workflow workflow;
+    private final StoredListIndex lists;
+    private final Map<String, RuleflowFunction> functions;
+    private final Executor executor;
+    private final int windowSize;
+    private final int chunkSize;
+
+    public NdjsonEvaluator(Workflow workflow) {
+        this(workflow, StoredListIndex.empty(), Map.of());
+    }
+
+    public NdjsonEvaluator(Workflow workflow, StoredListIndex lists, Map<String, RuleflowFunction> functions) {
+        this(workflow, lists, functions, null, DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param executor   runs chunks of a window in parallel, or {@code null} to evaluate on the calling thread
+     * @param windowSize maximum number of lines held in memory at once
+     * @param chunkSize  lines per parallel task
+     */
+    public NdjsonEvaluator(Workflow workflow, StoredListIndex lists, Map<String, RuleflowFunction> functions,
+                           Executor executor, int windowSize, int chunkSize) {
+        if (windowSize <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Window and chunk sizes must be positive");
+        }
+        this.workflow = workflow;
+        this.lists = lists != null ? lists : StoredListIndex.empty();
+        this.functions = functions != null ? functions : Map.of();
+        this.executor = executor;
+        this.windowSize = windowSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scores every line of {@code input} and writes the results to {@code output}. Neither
+     * stream is closed.
+     *
+     * @return the number of result lines written
+     */
+    public long evaluate(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long written = 0;
+        long lineNumber = 0;
+        List<Line> window = new ArrayList<>(windowSize);
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            window.add(new Line(lineNumber, text));
+            if (window.size() == windowSize) {
+                written += write(process(window), writer);
+                window.clear();
+            }
+        }
+        written += write(process(window), writer);
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * Scores a file through a memory mapping instead of buffered reads.
+     */
+    public long evaluate(Path file, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return evaluate(new MappedInputStream(channel), output);
+        }
+    }
+
+    private List<String> process(List<Line> window) {
+        if (window.isEmpty()) {
+            return List.of();
+        }
+        if (executor == null || window.size() <= chunkSize) {
+            return processChunk(window);
+        }
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < window.size(); from += chunkSize) {
+            List<Line> chunk = window.subList(from, Math.min(from + chunkSize, window.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> processChunk(chunk), executor));
+        }
+        List<String> results = new ArrayList<>(window.size());
+        try {
+            for (CompletableFuture<List<String>> chunk : chunks) {
+                results.addAll(chunk.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private List<String> processChunk(List<Line> lines) {
+        String[] output = new String[lines.size()];
+        List<Map<String, Object>> requests = new ArrayList<>(lines.size());
+        int[] positions = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            try {
+                Map<String, Object> request = GSON.fromJson(line.text, REQUEST_TYPE);
+                if (request == null) {
+                    output[i] = error(line.number, "Invalid JSON object: null");
+                    continue;
+                }
+                positions[requests.size()] = i;
+                requests.add(request);
+            } catch (JsonParseException | IllegalStateException e) {
+                output[i] = error(line.number, "Invalid JSON object: " + e.getMessage());
+            }
+        }
+        List<WorkflowResult> results = workflow.evaluateBatch(requests, lists, functions);
+        for (int i = 0; i < results.size(); i++) {
+            output[positions[i]] = GSON.toJson(results.get(i));
+        }
+        return List.of(output);
+    }
+
+    private static String error(long lineNumber, String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("line", lineNumber);
+        error.addProperty("error", message);
+        return GSON.toJson(error);
+    }
+
+    private static long write(List<String> results, Writer writer) throws IOException {
+        for (String result : results) {
+            writer.write(result);
+            writer.write('\n');
+        }
+        return results.size();
+    }
+
+    private static final class Line {
+        private final long number;
+        private final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Reads a file channel through successive read-only mappings.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private MappedByteBuffer region;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureRegion()) {
+                return -1;
+            }
+            return region.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureRegion()) {
+                return -1;
+            }
+            int count = Math.min(length, region.remaining());
+            region.get(buffer, offset, count);
+            return count;
+        }
+
+        private boolean ensureRegion() throws IOException {
+            if (region != null && region.hasRemaining()) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            long length = Math.min(MAPPED_REGION_SIZE, size - position);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.gatekeeperx.ruleflow.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton answering "does the text contain any of the patterns?"
+ * in a single pass over the text, regardless of the number of patterns.
+ * <p>
+ * Instances are immutable once built and can be shared between threads.
+ */
+public final class AhoCorasick {
+    private static final int ROOT = 0;
+
+    // Transitions of each state, as sorted labels with the matching target states
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    private final boolean[] terminal;
+
+    private AhoCorasick(char[][] labels, int[][] targets, int[] fail, boolean[] terminal) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Builds an automaton for the given patterns. Matching follows {@link String#contains}:
+     * an empty pattern matches every text.
+     *
+     * @param patterns the substrings to look for; {@code null} entries are ignored
+     * @return the automaton
+     */
+    public static AhoCorasick of(Collection<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(false);
+
+        for (String pattern : patterns) {
+            if (pattern == null) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(false);
+                    trie.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            ends.set(state, true);
+        }
+
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        boolean[] terminal = new boolean[size];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            labels[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i] = edge.getValue();
+                i++;
+            }
+            terminal[state] = ends.get(state);
+        }
+
+        // Breadth-first, so a state's failure link is resolved before its children's
+        int[] fail = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[ROOT]) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                while (f != ROOT && transition(labels, targets, f, c) < 0) {
+                    f = fail[f];
+                }
+                int next = transition(labels, targets, f, c);
+                fail[child] = next >= 0 ? next : ROOT;
+                // A state also ends every pattern that is a suffix of it
+                terminal[child] |= terminal[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasick(labels, targets, fail, terminal);
+    }
+
+    /**
+     * Returns whether {@code text} contains at least one of the patterns.
+     */
+    public boolean matchesAny(String text) {
+        if (terminal[ROOT]) {
+            return true;
+        }
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = transition(labels, targets, state, c);
+            while (next < 0 && state != ROOT) {
+                state = fail[state];
+                next = transition(labels, targets, state, c);
+            }
+            state = next >= 0 ? next : ROOT;
+            if (terminal[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int transition(char[][] labels, int[][] targets, int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.gatekeeperx.ruleflow.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Compact prefix trie answering "does the value start with any of the prefixes?"
+ * in O(length of the value), regardless of the number of prefixes.
+ * <p>
+ * Instances are immutable once built and can be shared between threads.
+ */
+public final class PrefixTrie {
+    private static final int ROOT = 0;
+
+    // Transitions of each node, as sorted labels with the matching child nodes
+    private final char[][] labels;
+    private final int[][] children;
+    private final boolean[] terminal;
+
+    private PrefixTrie(char[][] labels, int[][] children, boolean[] terminal) {
+        this.labels = labels;
+        this.children = children;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Builds a trie for the given prefixes. Matching follows {@link String#startsWith}:
+     * an empty prefix matches every value.
+     *
+     * @param prefixes the prefixes to look for; {@code null} entries are ignored
+     * @return the trie
+     */
+    public static PrefixTrie of(Collection<String> prefixes) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(false);
+
+        for (String prefix : prefixes) {
+            if (prefix == null) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < prefix.length() && !ends.get(node); i++) {
+                Integer next = trie.get(node).get(prefix.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(false);
+                    trie.get(node).put(prefix.charAt(i), next);
+                }
+                node = next;
+            }
+            // Longer prefixes below an existing one can never change the answer
+            ends.set(node, true);
+        }
+
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] children = new int[size][];
+        boolean[] terminal = new boolean[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            labels[node] = new char[edges.size()];
+            children[node] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                labels[node][i] = edge.getKey();
+                children[node][i] = edge.getValue();
+                i++;
+            }
+            terminal[node] = ends.get(node);
+        }
+        return new PrefixTrie(labels, children, terminal);
+    }
+
+    /**
+     * Returns whether {@code value} starts with at least one of the prefixes.
+     */
+    public boolean matchesPrefixOf(String value) {
+        int node = ROOT;
+        for (int i = 0; ; i++) {
+            if (terminal[node]) {
+                return true;
+            }
+            if (i == value.length()) {
+                return false;
+            }
+            int child = Arrays.binarySearch(labels[node], value.charAt(i));
+            if (child < 0) {
+                return false;
+            }
+            node = children[node][child];
+        }
+    }
+}
@@ -35,7 +35,7 @@ public class FieldExtractorVisitor extends RuleFlowLanguageBaseVisitor<Void> {
 
   @Override
   public Void visitCustomFunctionCall(RuleFlowLanguageParser.CustomFunctionCallContext ctx) {
-    functionNames.add(ctx.ID().getText());
+    functionNames.add(ctx.functionName.getText());
     return visitChildren(ctx);
   }
 
@@ -2,7 +2,24 @@ package com.gatekeeperx.ruleflow.visitors;
 
 import com.gatekeeperx.ruleflow.RuleFlowLanguageLexer;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageBaseVisitor;
+import com.gatekeeperx.ruleflow.columnar.BatchSelections;
+import com.gatekeeperx.ruleflow.columnar.ColumnBatch;
+import com.gatekeeperx.ruleflow.columnar.VectorExpr;
+import com.gatekeeperx.ruleflow.compiler.CompiledExpr;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.ActionCall;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.ActionParam;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.DefaultClause;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.Rule;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.Ruleset;
+import com.gatekeeperx.ruleflow.compiler.CompiledWorkflow.SetClause;
+import com.gatekeeperx.ruleflow.compiler.WorkflowCompiler;
 import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.jfr.RuleEvaluated;
+import com.gatekeeperx.ruleflow.jfr.WorkflowEvaluated;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.metrics.EvaluationListener;
+import com.gatekeeperx.ruleflow.metrics.WarningCategory;
 import com.gatekeeperx.ruleflow.RuleFlowLanguageParser;
 import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
 import com.gatekeeperx.ruleflow.errors.UnexpectedSymbolException;
@@ -18,15 +35,19 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult> {
     private static final Logger logger = LoggerFactory.getLogger(RulesetVisitor.class);
-    private final Map<String, ?> data;
-    private final Map<String, List<?>> lists;
+    private Map<String, ?> data;
+    private final StoredListIndex lists;
     private final Map<String, RuleflowFunction> functions;
+    // null when metrics are disabled, so evaluation skips the clock reads
+    private final EvaluationListener listener;
+    // Set while evaluating a column batch: precomputed conditions and the current row
+    private BatchSelections selections;
+    private int row;
 
     public RulesetVisitor(Map<String, ?> data, Map<String, List<?>> lists) {
         this(data, lists, Map.of());
@@ -34,9 +55,20 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
 
     public RulesetVisitor(Map<String, ?> data, Map<String, List<?>> lists,
                           Map<String, RuleflowFunction> functions) {
+        this(data, StoredListIndex.unindexed(lists), functions);
+    }
+
+    public RulesetVisitor(Map<String, ?> data, StoredListIndex lists,
+                          Map<String, RuleflowFunction> functions) {
+        this(data, lists, functions, null);
+    }
+
+    public RulesetVisitor(Map<String, ?> data, StoredListIndex lists,
+                          Map<String, RuleflowFunction> functions, EvaluationListener listener) {
         this.data = data;
         this.lists = lists;
         this.functions = functions != null ? functions : Map.of();
+        this.listener = listener;
     }
 
     @Override
@@ -46,67 +78,153 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
 
     @Override
     public WorkflowResult visitWorkflow(RuleFlowLanguageParser.WorkflowContext ctx) {
+        return visitWorkflow(new WorkflowCompiler().compile(ctx));
+    }
+
+    public WorkflowResult visitWorkflow(CompiledWorkflow workflow) {
+        return visitWorkflow(workflow, new Visitor(data, lists, data, functions),
+            new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Evaluates each request in turn, rebinding this visitor to it. One expression visitor and the
+     * rule loop's scratch lists are reused for the whole batch; results are returned in input order.
+     */
+    public List<WorkflowResult> visitBatch(CompiledWorkflow workflow, List<? extends Map<String, ?>> requests) {
+        List<WorkflowResult> results = new ArrayList<>(requests.size());
         Visitor visitor = new Visitor(data, lists, data, functions);
-        Set<String> warnings = new HashSet<>();
         List<WorkflowResult> matchedRules = new ArrayList<>();
         List<Action> accumulatedActions = new ArrayList<>();
+        int index = 0;
+        for (Map<String, ?> request : requests) {
+            this.row = index++;
+            this.data = request;
+            visitor.rebind(request, request);
+            matchedRules.clear();
+            accumulatedActions.clear();
+            results.add(visitWorkflow(workflow, visitor, matchedRules, accumulatedActions));
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates every row of a column batch. Conditions with a column-at-a-time form are
+     * computed once for the whole batch; the rest of each row, and any row such a condition
+     * cannot decide, runs exactly as in {@link #visitBatch}.
+     */
+    public List<WorkflowResult> visitColumns(CompiledWorkflow workflow, ColumnBatch batch) {
+        this.selections = new BatchSelections(batch);
+        try {
+            return visitBatch(workflow, batch.rows());
+        } finally {
+            this.selections = null;
+        }
+    }
+
+    private Object evaluateCondition(CompiledExpr condition, VectorExpr vectorCondition, Visitor visitor) {
+        if (selections != null && vectorCondition != null) {
+            Boolean selected = selections.test(vectorCondition, row);
+            if (selected != null) {
+                return selected;
+            }
+        }
+        return visitor.evaluate(condition);
+    }
+
+    private WorkflowResult visitWorkflow(
+        CompiledWorkflow workflow,
+        Visitor visitor,
+        List<WorkflowResult> matchedRules,
+        List<Action> accumulatedActions) {
+        // Flight Recorder events are no-ops unless a recording has them enabled
+        WorkflowEvaluated event = new WorkflowEvaluated();
+        event.begin();
+        WorkflowResult result = evaluateRulesets(workflow, visitor, matchedRules, accumulatedActions);
+        event.end(result);
+        return result;
+    }
+
+    private WorkflowResult evaluateRulesets(
+        CompiledWorkflow workflow,
+        Visitor visitor,
+        List<WorkflowResult> matchedRules,
+        List<Action> accumulatedActions) {
+        // Warnings end up in the result, so they are never shared between requests
+        Set<String> warnings = new HashSet<>();
         boolean error = false;
-        boolean multiMatch = ctx.configuration() != null &&
-            ctx.configuration().evaluation_mode() != null &&
-            ctx.configuration().evaluation_mode().K_MULTI_MATCH() != null;
+        boolean multiMatch = workflow.isMultiMatch();
 
-        for (RuleFlowLanguageParser.RulesetsContext ruleSet : ctx.rulesets()) {
-            if (ruleSet.ruleset_condition() != null) {
+        for (Ruleset ruleSet : workflow.getRulesets()) {
+            if (ruleSet.getCondition() != null) {
+                long start = listener != null ? System.nanoTime() : 0L;
+                boolean matched = false;
+                WarningCategory category = WarningCategory.NONE;
                 try {
-                    Object result = visitor.visit(ruleSet.ruleset_condition().expr());
+                    Object result = evaluateCondition(ruleSet.getCondition(), ruleSet.getVectorCondition(), visitor);
                     if (!(result instanceof Boolean) || !((Boolean) result)) {
                         continue;
                     }
+                    matched = true;
                 } catch (RuntimeException ex) {
                     if (ex.getCause() != null && ex.getCause() instanceof PropertyNotFoundException) {
-                        logger.debug("Property not found in ruleset condition: {} {}", ctx.workflow_name().getText(), ruleSet.name().getText(), ex);
+                        category = WarningCategory.PROPERTY_NOT_FOUND;
+                        logger.debug("Property not found in ruleset condition: {} {}", workflow.getRawName(), ruleSet.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                         continue;
                     } else if (ex.getCause() != null && ex.getCause() instanceof UnexpectedSymbolException) {
-                        logger.warn("Unexpected symbol in ruleset condition: {} {}", ctx.workflow_name().getText(), ruleSet.name().getText(), ex);
+                        category = WarningCategory.UNEXPECTED_SYMBOL;
+                        logger.warn("Unexpected symbol in ruleset condition: {} {}", workflow.getRawName(), ruleSet.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                         continue;
                     } else if (ex.getCause() != null && ex.getCause() instanceof ActionParameterResolutionException) {
-                        logger.warn("Action parameter resolution failed in ruleset condition: {} {}", ctx.workflow_name().getText(), ruleSet.name().getText(), ex);
+                        category = WarningCategory.ACTION_PARAMETER_RESOLUTION;
+                        logger.warn("Action parameter resolution failed in ruleset condition: {} {}", workflow.getRawName(), ruleSet.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                         continue;
                     } else if ((ex instanceof TypeComparisonException) || (ex.getCause() != null && ex.getCause() instanceof TypeComparisonException)) {
-                        String rulesetName = removeSingleQuote(ruleSet.name().getText());
-                        logger.warn("Type comparison error in ruleset condition {} {}", ctx.workflow_name().getText(), rulesetName, ex);
+                        category = WarningCategory.TYPE_COMPARISON;
+                        String rulesetName = ruleSet.getName();
+                        logger.warn("Type comparison error in ruleset condition {} {}", workflow.getRawName(), rulesetName, ex);
                         warnings.add("There is a comparison between different dataTypes in ruleset " + rulesetName);
                         continue;
                     } else {
+                        category = WarningCategory.UNEXPECTED_ERROR;
                         logger.error("Error while evaluating ruleset condition {} {}",
-                            ctx.workflow_name().getText(), ruleSet.name().getText(), ex);
+                            workflow.getRawName(), ruleSet.getRawName(), ex);
                         warnings.add(ex.getMessage() != null ? ex.getMessage()
                             : "Unexpected Exception at " + ruleSet.getText());
                         error = true;
                         continue;
                     }
+                } finally {
+                    if (listener != null) {
+                        listener.rulesetEvaluated(workflow.getName(), ruleSet.getName(), System.nanoTime() - start,
+                            matched, category);
+                    }
                 }
             }
-            for (RuleFlowLanguageParser.RulesContext rule : ruleSet.rules()) {
+            for (Rule rule : ruleSet.getRules()) {
+                long start = listener != null ? System.nanoTime() : 0L;
+                RuleEvaluated event = new RuleEvaluated();
+                event.begin();
+                boolean matched = false;
+                WarningCategory category = WarningCategory.NONE;
                 try {
-                    // expr? — null means always-true rule
-                    Object visitedRule = rule.rule_body().expr() != null
-                        ? visitor.visit(rule.rule_body().expr())
+                    // null condition means always-true rule
+                    Object visitedRule = rule.getCondition() != null
+                        ? evaluateCondition(rule.getCondition(), rule.getVectorCondition(), visitor)
                         : Boolean.TRUE;
 
                     if (visitedRule instanceof Boolean && (Boolean) visitedRule) {
-                        for (var setClause : rule.rule_body().set_clause()) {
-                            Object value = visitor.visit(setClause.expr());
-                            String rawName = setClause.variable.getText();
-                            String varName = rawName.substring(1);
-                            if (setClause.compound_op != null) {
+                        matched = true;
+                        for (SetClause setClause : rule.getSetClauses()) {
+                            Object value = visitor.evaluate(setClause.getExpr());
+                            String varName = setClause.getVariable();
+                            if (setClause.isCompound()) {
                                 Object existing = visitor.getVariables().get(varName);
                                 double existingVal = existing != null ? Double.parseDouble(existing.toString()) : 0.0;
                                 double rhs = Double.parseDouble(value.toString());
-                                value = switch (setClause.compound_op.getType()) {
+                                value = switch (setClause.getCompoundOp()) {
                                     case RuleFlowLanguageLexer.PLUS_EQ     -> existingVal + rhs;
                                     case RuleFlowLanguageLexer.MINUS_EQ    -> existingVal - rhs;
                                     case RuleFlowLanguageLexer.MULTIPLY_EQ -> existingVal * rhs;
@@ -118,92 +236,90 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
                             visitor.setVariable(varName, value);
                         }
 
-                        if (rule.rule_body().K_THEN() != null) {
-                            // THEN branch
-                            Pair<List<Action>, Map<String, Map<String, String>>> resolved =
-                                resolveActions(rule.rule_body().then_result);
-                            if (rule.rule_body().K_CONTINUE() != null) {
-                                // THEN + CONTINUE: accumulate actions, keep evaluating
-                                accumulatedActions.addAll(resolved.getKey());
+                        switch (rule.getOutcome()) {
+                            case THEN_CONTINUE, INLINE_CONTINUE -> {
+                                // Accumulate actions, keep evaluating
+                                accumulatedActions.addAll(resolveActions(rule.getActions()).getKey());
+                                continue;
+                            }
+                            case CONTINUE -> {
+                                // CONTINUE only (no THEN): set vars and continue
                                 continue;
-                            } else {
+                            }
+                            case THEN -> {
                                 // THEN without CONTINUE: return with rule name as result
-                                String exprResult = removeSingleQuote(rule.name().getText());
+                                Pair<List<Action>, Map<String, Map<String, String>>> resolved =
+                                    resolveActions(rule.getActions());
                                 List<Action> allActions = mergeActions(accumulatedActions, resolved.getKey());
-                                WorkflowResult wr = workflowResult(rule, ctx, ruleSet, exprResult, warnings, visitor, allActions);
+                                WorkflowResult wr = workflowResult(rule, workflow, ruleSet, rule.getName(), warnings, visitor, allActions);
                                 if (multiMatch) {
                                     matchedRules.add(wr);
                                 } else {
                                     return wr;
                                 }
                             }
-                        } else if (rule.rule_body().inline_actions != null) {
-                            // Inline actions + continue (no THEN keyword)
-                            Pair<List<Action>, Map<String, Map<String, String>>> resolved =
-                                resolveActions(rule.rule_body().inline_actions);
-                            accumulatedActions.addAll(resolved.getKey());
-                            continue;
-                        } else if (rule.rule_body().K_CONTINUE() != null) {
-                            // CONTINUE only (no THEN): set vars and continue
-                            continue;
-                        } else {
-                            // RETURN branch
-                            Object exprResult;
-                            if (rule.rule_body().result != null) {
-                                if (rule.rule_body().result.expr() != null) {
-                                    exprResult = visitor.visit(rule.rule_body().result.expr());
-                                } else {
-                                    exprResult = rule.rule_body().result.state().ID().getText();
-                                }
-                            } else {
+                            case RETURN -> {
                                 // return_result absent — use rule name
-                                exprResult = removeSingleQuote(rule.name().getText());
-                            }
-                            // Merge accumulated actions with this rule's own actions
-                            List<Action> ruleActions = new ArrayList<>();
-                            if (rule.rule_body().actions() != null) {
-                                try {
-                                    ruleActions = resolveActions(rule.rule_body().actions()).getKey();
-                                } catch (ActionParameterResolutionException ex) {
-                                    warnings.add(ex.getMessage());
+                                Object exprResult = rule.getResult() != null
+                                    ? visitor.evaluate(rule.getResult())
+                                    : rule.getName();
+                                // Merge accumulated actions with this rule's own actions
+                                List<Action> ruleActions = new ArrayList<>();
+                                if (rule.getActions() != null) {
+                                    try {
+                                        ruleActions = resolveActions(rule.getActions()).getKey();
+                                    } catch (ActionParameterResolutionException ex) {
+                                        warnings.add(ex.getMessage());
+                                    }
+                                }
+                                List<Action> allActions = mergeActions(accumulatedActions, ruleActions);
+                                WorkflowResult wr = workflowResult(rule, workflow, ruleSet, exprResult, warnings, visitor, allActions);
+                                if (multiMatch) {
+                                    matchedRules.add(wr);
+                                } else {
+                                    return wr;
                                 }
-                            }
-                            List<Action> allActions = mergeActions(accumulatedActions, ruleActions);
-                            WorkflowResult wr = workflowResult(rule, ctx, ruleSet, exprResult, warnings, visitor, allActions);
-                            if (multiMatch) {
-                                matchedRules.add(wr);
-                            } else {
-                                return wr;
                             }
                         }
                     }
                 } catch (RuntimeException ex) {
                     if (ex.getCause() != null && ex.getCause() instanceof PropertyNotFoundException) {
-                        logger.debug("Property not found: {} {}", ctx.workflow_name().getText(), rule.name().getText(), ex);
+                        category = WarningCategory.PROPERTY_NOT_FOUND;
+                        logger.debug("Property not found: {} {}", workflow.getRawName(), rule.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                     } else if (ex.getCause() != null && ex.getCause() instanceof UnexpectedSymbolException) {
-                        logger.warn("Unexpected symbol: {} {}", ctx.workflow_name().getText(), rule.name().getText(), ex);
+                        category = WarningCategory.UNEXPECTED_SYMBOL;
+                        logger.warn("Unexpected symbol: {} {}", workflow.getRawName(), rule.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                     } else if (ex.getCause() != null && ex.getCause() instanceof ActionParameterResolutionException) {
-                        logger.warn("Action parameter resolution failed: {} {}", ctx.workflow_name().getText(), rule.name().getText(), ex);
+                        category = WarningCategory.ACTION_PARAMETER_RESOLUTION;
+                        logger.warn("Action parameter resolution failed: {} {}", workflow.getRawName(), rule.getRawName(), ex);
                         warnings.add(ex.getCause().getMessage());
                     } else if ((ex instanceof TypeComparisonException) || (ex.getCause() != null && ex.getCause() instanceof TypeComparisonException)) {
-                        String ruleName = removeSingleQuote(rule.name().getText());
-                        logger.warn("Type comparison error in rule {} {}", ctx.workflow_name().getText(), ruleName, ex);
+                        category = WarningCategory.TYPE_COMPARISON;
+                        String ruleName = rule.getName();
+                        logger.warn("Type comparison error in rule {} {}", workflow.getRawName(), ruleName, ex);
                         warnings.add("There is a comparison between different dataTypes in rule " + ruleName);
                     } else {
+                        category = WarningCategory.UNEXPECTED_ERROR;
                         logger.error("Error while evaluating rule {} {}",
-                            ctx.workflow_name().getText(), rule.name().getText(), ex);
+                            workflow.getRawName(), rule.getRawName(), ex);
                         warnings.add(ex.getMessage() != null ? ex.getMessage()
                             : "Unexpected Exception at " + rule.getText());
                         error = true;
                     }
+                } finally {
+                    event.end(workflow.getName(), ruleSet.getName(), rule.getName(), matched, category.name());
+                    if (listener != null) {
+                        listener.ruleEvaluated(workflow.getName(), ruleSet.getName(), rule.getName(),
+                            System.nanoTime() - start, matched, category);
+                    }
                 }
             }
         }
         if (!matchedRules.isEmpty()) {
             WorkflowResult result = new WorkflowResult(
-                ctx.workflow_name().getText().replace("'", ""),
+                workflow.getName(),
                 matchedRules.get(0).getRuleSet(),
                 matchedRules.get(0).getRule(),
                 matchedRules.get(0).getResult(),
@@ -221,30 +337,31 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
             return result;
         }
 
-        return resolveDefaultResult(ctx, warnings, error, visitor, accumulatedActions);
+        return resolveDefaultResult(workflow, warnings, error, visitor, accumulatedActions);
     }
 
     private WorkflowResult resolveDefaultResult(
-        RuleFlowLanguageParser.WorkflowContext ctx,
+        CompiledWorkflow workflow,
         Set<String> warnings,
         boolean error,
         Visitor evaluator,
         List<Action> accumulatedActions) {
+        DefaultClause defaultClause = workflow.getDefaultClause();
         List<Action> actionsList = new ArrayList<>(accumulatedActions);
         Map<String, Map<String, String>> actionsMap = new HashMap<>();
         // populate map from accumulated actions
         accumulatedActions.forEach(a -> actionsMap.put(a.getName(), a.getParams()));
 
-        if (ctx.default_clause().actions() != null) {
-            Pair<List<Action>, Map<String, Map<String, String>>> resolvedActions = resolveActions(ctx.default_clause().actions());
+        if (defaultClause.getActions() != null) {
+            Pair<List<Action>, Map<String, Map<String, String>>> resolvedActions = resolveActions(defaultClause.getActions());
             actionsList.addAll(resolvedActions.getKey());
             actionsMap.putAll(resolvedActions.getValue());
         }
 
-        if (ctx.default_clause().return_result().expr() != null) {
-            Object solvedExpr = evaluator.visit(ctx.default_clause().return_result().expr());
+        if (defaultClause.getResult() != null) {
+            Object solvedExpr = evaluator.evaluate(defaultClause.getResult());
             WorkflowResult result = new WorkflowResult(
-                ctx.workflow_name().getText().replace("'", ""),
+                workflow.getName(),
                 "default",
                 "default",
                 solvedExpr.toString(),
@@ -255,12 +372,12 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
             result.setActionCalls(actionsList);
             result.setVariables(new HashMap<>(evaluator.getVariables()));
             return result;
-        } else if (ctx.default_clause().return_result().state() != null) {
+        } else if (defaultClause.getState() != null) {
             WorkflowResult result = new WorkflowResult(
-                removeSingleQuote(ctx.workflow_name().getText()),
+                workflow.getName(),
                 "default",
                 "default",
-                ctx.default_clause().return_result().state().ID().getText(),
+                defaultClause.getState(),
                 actionsMap.keySet(),
                 warnings,
                 actionsMap,
@@ -276,17 +393,17 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
     }
 
     private WorkflowResult workflowResult(
-        RuleFlowLanguageParser.RulesContext rule,
-        RuleFlowLanguageParser.WorkflowContext ctx,
-        RuleFlowLanguageParser.RulesetsContext ruleSet,
+        Rule rule,
+        CompiledWorkflow workflow,
+        Ruleset ruleSet,
         Object expr,
         Set<String> warnings,
         Visitor visitor,
         List<Action> allActions) {
         WorkflowResult result = new WorkflowResult(
-            removeSingleQuote(ctx.workflow_name().getText()),
-            removeSingleQuote(ruleSet.name().getText()),
-            removeSingleQuote(rule.name().getText()),
+            workflow.getName(),
+            ruleSet.getName(),
+            rule.getName(),
             expr.toString(),
             warnings
         );
@@ -310,20 +427,50 @@ public class RulesetVisitor extends RuleFlowLanguageBaseVisitor<WorkflowResult>
         return merged;
     }
 
-    private Pair<List<Action>, Map<String, Map<String, String>>> resolveActions(RuleFlowLanguageParser.ActionsContext rule) {
-        Visitor visitor = new Visitor(data, lists, data);
-        List<com.gatekeeperx.ruleflow.utils.Pair<String, Map<String, String>>> actions = new ActionsVisitor(visitor).visit(rule);
-        List<Action> actionsList = actions.stream().map(action -> new Action(action.getKey(), new HashMap<>(action.getValue()))).collect(Collectors.toList());
-        Map<String, Map<String, String>> actionsMap = actions.stream()
-            .collect(Collectors.toMap(Map.Entry::getKey, entry -> new HashMap<>(entry.getValue()),
-                (existing, replacement) -> {
-                    existing.putAll(replacement);
-                    return existing;
-                }));
+    private Pair<List<Action>, Map<String, Map<String, String>>> resolveActions(List<ActionCall> actions) {
+        Visitor visitor = new Visitor(data, lists, data, Map.of());
+        List<Action> actionsList = new ArrayList<>();
+        Map<String, Map<String, String>> actionsMap = new HashMap<>();
+        for (ActionCall action : actions) {
+            Map<String, String> params = resolveActionParams(action, visitor);
+            actionsList.add(new Action(action.getName(), new HashMap<>(params)));
+            actionsMap.merge(action.getName(), new HashMap<>(params), (existing, replacement) -> {
+                existing.putAll(replacement);
+                return existing;
+            });
+        }
         return new Pair<>(actionsList, actionsMap);
     }
 
-    private String removeSingleQuote(String text) {
-        return text.replace("'", "");
+    private Map<String, String> resolveActionParams(ActionCall action, Visitor visitor) {
+        if (action.getParams().isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> params = new HashMap<>();
+        for (ActionParam param : action.getParams()) {
+            String value = resolveActionParamValue(param, visitor);
+            String previous = params.putIfAbsent(param.getName(), value);
+            if (previous != null) {
+                throw new IllegalStateException(String.format(
+                    "Duplicate key %s (attempted merging values %s and %s)", param.getName(), previous, value));
+            }
+        }
+        return params;
+    }
+
+    private String resolveActionParamValue(ActionParam param, Visitor visitor) {
+        if (param.isConstant()) {
+            return param.getConstant();
+        }
+        // Handle property references - resolve the actual value from the request data
+        try {
+            Object resolvedValue = visitor.evaluate(param.getProperty());
+            return resolvedValue != null ? resolvedValue.toString() : "null";
+        } catch (Exception e) {
+            // If property resolution fails, throw a specific exception
+            throw new ActionParameterResolutionException(
+                "Failed to resolve property '" + param.getPropertyText() + "' in action parameter: " + e.getMessage()
+            );
+        }
     }
 }
@@ -0,0 +1,84 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BatchEvaluationTest {
+
+    @Test
+    public void givenBatchWhenEvaluatingMustMatchSingleEvaluationsInOrder() {
+        String workflow = """
+            workflow 'batch'
+                ruleset 'scoring'
+                    'base' amount > 0 set $score = amount * 2 continue
+                    'blocked' user_id in list('blocked_users') return block
+                    'high' $score > 100 return review with manual_review({'user': user_id})
+                default allow
+            end
+        """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of("blocked_users", List.of("u3"));
+
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(Map.of("user_id", "u" + (i % 5), "amount", i * 7));
+        }
+        requests.add(Map.of("user_id", "u9"));
+
+        List<WorkflowResult> results = ruleEngine.evaluateBatch(requests, lists);
+
+        Assertions.assertEquals(requests.size(), results.size());
+        for (int i = 0; i < requests.size(); i++) {
+            WorkflowResult expected = ruleEngine.evaluate(requests.get(i), lists);
+            Assertions.assertEquals(expected, results.get(i));
+            Assertions.assertEquals(expected.getVariables(), results.get(i).getVariables());
+        }
+        // Variables set by earlier requests must not leak into later ones
+        Assertions.assertTrue(results.get(requests.size() - 1).getVariables().isEmpty());
+        Assertions.assertFalse(results.get(requests.size() - 1).getWarnings().isEmpty());
+    }
+
+    @Test
+    public void givenBatchWhenCallingFunctionsMustNotReuseResultsAcrossRequests() {
+        String workflow = """
+            workflow 'batch'
+                ruleset 'check'
+                    'match' screening(user_id) == 'hit' and screening(user_id) == 'hit' return block
+                default allow
+            end
+        """;
+        AtomicInteger calls = new AtomicInteger();
+        RuleflowFunction screening = args -> {
+            calls.incrementAndGet();
+            return "u1".equals(args.get("0")) ? "hit" : "clear";
+        };
+
+        List<WorkflowResult> results = new Workflow(workflow).evaluateBatch(
+            List.of(Map.of("user_id", "u1"), Map.of("user_id", "u1"), Map.of("user_id", "u2")),
+            Map.of(),
+            Map.of("screening", screening));
+
+        Assertions.assertEquals(List.of("block", "block", "allow"),
+            results.stream().map(WorkflowResult::getResult).toList());
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void givenEmptyBatchWhenEvaluatingMustReturnEmptyList() {
+        String workflow = """
+            workflow 'batch'
+                ruleset 'dummy'
+                    'rule_a' user_id = 15 return block
+                default allow
+            end
+        """;
+
+        Assertions.assertTrue(new Workflow(workflow).evaluateBatch(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.columnar.ColumnBatch;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class ColumnarEvaluationTest {
+
+    private static final String WORKFLOW = """
+        workflow 'backtest'
+            ruleset 'domestic' country in 'AR', 'UY' or amount < 10 then
+                'tiny' amount <= 1 and 2 > score return allow
+                'mixed' code = '7' and status = 'BLOCKED' return block
+            ruleset 'scoring'
+                'base' amount > 0 set $risk = amount * score continue
+                'blocked' status <> 'active' and country not in 'AR', 'BR' return block
+                'ignore_case' status == 'Blocked' return block
+                'risky' $risk > 500 return review with manual_review({'country': country})
+                'numeric_code' code >= '100' and (score > 9 or amount = 42) return review
+            default allow
+        end
+    """;
+
+    @Test
+    public void givenColumnBatchWhenEvaluatingMustMatchRowWiseEvaluation() {
+        int rows = 2_000;
+        Random random = new Random(42);
+        double[] amount = new double[rows];
+        long[] score = new long[rows];
+        String[] country = new String[rows];
+        String[] status = new String[rows];
+        String[] code = new String[rows];
+        BitSet amountNulls = new BitSet();
+        BitSet scoreNulls = new BitSet();
+        String[] countries = {"AR", "BR", "UY", "US", null};
+        String[] statuses = {"active", "blocked", "BLOCKED", "Blocked", null};
+        String[] codes = {"7", "07", "7.0", "100", "99", "abc", "", null};
+        for (int row = 0; row < rows; row++) {
+            amount[row] = random.nextInt(120) / 2.0;
+            score[row] = random.nextInt(15);
+            if (random.nextInt(20) == 0) amountNulls.set(row);
+            if (random.nextInt(25) == 0) scoreNulls.set(row);
+            country[row] = countries[random.nextInt(countries.length)];
+            status[row] = statuses[random.nextInt(statuses.length)];
+            code[row] = codes[random.nextInt(codes.length)];
+        }
+        ColumnBatch batch = new ColumnBatch(rows)
+            .addDoubles("amount", amount, amountNulls)
+            .addLongs("score", score, scoreNulls)
+            .addStrings("country", country)
+            .addStrings("status", status)
+            .addStrings("code", code);
+
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        List<WorkflowResult> columnar = ruleEngine.evaluateColumns(batch);
+        List<WorkflowResult> rowWise = ruleEngine.evaluateBatch(materialize(batch));
+
+        Assertions.assertEquals(rows, columnar.size());
+        Assertions.assertEquals(Set.of("allow", "block", "review"),
+            columnar.stream().map(WorkflowResult::getResult).collect(Collectors.toSet()));
+        for (int row = 0; row < rows; row++) {
+            Assertions.assertEquals(rowWise.get(row), columnar.get(row), "row " + row);
+            Assertions.assertEquals(rowWise.get(row).getVariables(), columnar.get(row).getVariables(), "row " + row);
+        }
+    }
+
+    @Test
+    public void givenMissingColumnWhenEvaluatingMustWarnLikeMissingProperty() {
+        String workflow = """
+            workflow 'backtest'
+                ruleset 'dummy'
+                    'rule_a' user_id = 15 return block
+                    'rule_b' amount > 10 return review
+                default allow
+            end
+        """;
+        ColumnBatch batch = new ColumnBatch(2).addDoubles("amount", new double[] {5, 50}, null);
+
+        List<WorkflowResult> results = new Workflow(workflow).evaluateColumns(batch);
+
+        Assertions.assertEquals("allow", results.get(0).getResult());
+        Assertions.assertEquals("review", results.get(1).getResult());
+        Assertions.assertTrue(results.get(1).getWarnings().contains("user_id field cannot be found"));
+    }
+
+    @Test
+    public void givenColumnOfWrongLengthWhenBuildingBatchMustFail() {
+        ColumnBatch batch = new ColumnBatch(3);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> batch.addLongs("score", new long[] {1, 2}, null));
+    }
+
+    private static List<Map<String, Object>> materialize(ColumnBatch batch) {
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            requests.add(new HashMap<>(batch.row(row)));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,64 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.compiler.ExprCompiler;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class CompiledWorkflowTest {
+
+    @Test
+    public void givenCompiledWorkflowWhenEvaluatingSeveralRequestsMustNotShareState() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'scoring'
+                    'base' amount > 0 set $score = amount * 2 continue
+                    'high' $score > 100 return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        WorkflowResult high = ruleEngine.evaluate(Map.of("amount", 60));
+        WorkflowResult low = ruleEngine.evaluate(Map.of("amount", 10));
+        WorkflowResult missing = ruleEngine.evaluate(Map.of());
+
+        Assertions.assertEquals("block", high.getResult());
+        Assertions.assertEquals(120.0, high.getVariables().get("score"));
+        Assertions.assertEquals("allow", low.getResult());
+        Assertions.assertEquals(20.0, low.getVariables().get("score"));
+        Assertions.assertEquals("allow", missing.getResult());
+        Assertions.assertTrue(missing.getVariables().isEmpty());
+    }
+
+    @Test
+    public void givenCompiledEvalInListWhenEvaluatingSeveralListsMustResolveEachItem() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'lists'
+                    'match' evalInList('users', elem.id = user_id and elem.status = 'blocked') return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of("users", List.of(
+            Map.of("id", "u1", "status", "active"),
+            Map.of("id", "u2", "status", "blocked")
+        ));
+
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("user_id", "u2"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "u1"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "u2"), Map.of()).getResult());
+    }
+
+    @Test
+    public void givenUnsupportedContextWhenCompilingMustFail() {
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ExprCompiler.root().compile(new ParserRuleContext()));
+        Assertions.assertTrue(e.getMessage().startsWith("Operation not supported: "));
+    }
+}
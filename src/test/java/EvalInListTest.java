@@ -1,4 +1,6 @@
 import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
 import com.gatekeeperx.ruleflow.vo.WorkflowResult;
 import java.time.LocalDateTime;
 import java.time.Year;
@@ -6,8 +8,10 @@ import java.time.temporal.ChronoUnit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EvalInListTest {
 
@@ -540,5 +544,130 @@ public class EvalInListTest {
 
         Assertions.assertEquals(expectedResult, result);
     }
-}
 
+    @Test
+    public void testEvalInListLargeListScopesEachItemSeparately() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'blocked' evalInList('accounts', elem.owner.id = user_id and status = 'blocked' and it.score > 50) return block
+                default allow
+            end
+        """;
+
+        List<Object> accounts = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (i % 3 == 0) {
+                // Items without the nested owner or that are not maps must not match
+                accounts.add(i % 2 == 0 ? "not a map" : Map.of("status", "blocked", "score", 90));
+            } else {
+                accounts.add(Map.of("owner", Map.of("id", "u" + i), "status", i % 2 == 0 ? "active" : "blocked", "score", i % 100));
+            }
+        }
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of("accounts", accounts);
+
+        // u19999 is blocked with score 99, u49 is blocked with score 49 and u19998 has no account
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("user_id", "u19999"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "u19998"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "u49"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "nobody"), lists).getResult());
+    }
+
+    @Test
+    public void testEvalInListFieldEqualityOnlyEvaluatesMatchingItems() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'blocked' evalInList('accounts', seen(elem.id) and (elem.owner == user_id and elem.status = 'BLOCKED')) return block
+                default allow
+            end
+        """;
+
+        List<Object> accounts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            accounts.add(Map.of("id", i, "owner", "u" + i % 100, "status", i % 200 == 14 ? "blocked" : "active"));
+        }
+        AtomicInteger seen = new AtomicInteger();
+        RuleflowFunction counter = args -> {
+            seen.incrementAndGet();
+            return true;
+        };
+        Workflow ruleEngine = new Workflow(workflow);
+        StoredListIndex lists = StoredListIndex.of(Map.of("accounts", accounts));
+
+        // u14 owns ten accounts, the first of them blocked
+        WorkflowResult result = ruleEngine.evaluate(Map.of("user_id", "u14"), lists, Map.of("seen", counter));
+        Assertions.assertEquals("block", result.getResult());
+        Assertions.assertEquals(1, seen.get());
+
+        // u1 owns ten accounts, none blocked
+        seen.set(0);
+        result = ruleEngine.evaluate(Map.of("user_id", "u1"), lists, Map.of("seen", counter));
+        Assertions.assertEquals("allow", result.getResult());
+        Assertions.assertEquals(10, seen.get());
+
+        // Lists passed for one call are scanned in order, without building an index
+        seen.set(0);
+        result = ruleEngine.evaluate(Map.of("user_id", "u14"), Map.of("accounts", accounts), Map.of("seen", counter));
+        Assertions.assertEquals("block", result.getResult());
+        Assertions.assertEquals(15, seen.get());
+    }
+
+    @Test
+    public void testEvalInListFieldEqualityReadsShadowingItemFields() {
+        // owner resolves against each item, not the request, so the index cannot be used
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'self_owned' evalInList('accounts', elem.id == owner) return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        StoredListIndex lists = StoredListIndex.of(Map.of("accounts", List.of(
+            Map.of("id", "a1", "owner", "u1"),
+            Map.of("id", "a2", "owner", "a2"))));
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("owner", "a1"), lists).getResult());
+
+        StoredListIndex unowned = StoredListIndex.of(Map.of("accounts", List.of(
+            Map.of("id", "a1", "owner", "u1"))));
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("owner", "a1"), unowned).getResult());
+    }
+
+    @Test
+    public void testEvalInListFieldEqualityKeepsComparatorSemantics() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'numbers'
+                    'code' evalInList('codes', elem.code == 5 and elem.kind == 'number') return number
+                ruleset 'strings'
+                    'name' evalInList('codes', name = elem.name) return name
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        // Numbers and numeric strings compare by value; '=' ignores case
+        Assertions.assertEquals("number", ruleEngine.evaluate(Map.of("name", "x"), Map.of("codes", List.of(
+            Map.of("code", "5.0", "kind", "number"),
+            Map.of("code", 6, "kind", "number")
+        ))).getResult());
+        Assertions.assertEquals("number", ruleEngine.evaluate(Map.of("name", "x"), Map.of("codes", List.of(
+            Map.of("code", 5L, "kind", "number")
+        ))).getResult());
+        Assertions.assertEquals("name", ruleEngine.evaluate(Map.of("name", "Acme"), Map.of("codes", List.of(
+            Map.of("code", "five", "name", "ACME", "kind", "name")
+        ))).getResult());
+        // A property the item has is read from the item rather than the request
+        Assertions.assertEquals("name", ruleEngine.evaluate(Map.of("name", "Other"), Map.of("codes", List.of(
+            Map.of("code", "five", "name", "Same", "kind", "name"),
+            Map.of("code", "six", "kind", "name")
+        ))).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("name", "Other"), Map.of("codes", List.of(
+            Map.of("code", "five", "kind", "name"),
+            Map.of("code", 5, "kind", "text")
+        ))).getResult());
+    }
+}
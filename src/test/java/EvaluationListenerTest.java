@@ -0,0 +1,128 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.metrics.EvaluationListener;
+import com.gatekeeperx.ruleflow.metrics.LatencyHistogram;
+import com.gatekeeperx.ruleflow.metrics.RuleMetrics;
+import com.gatekeeperx.ruleflow.metrics.WarningCategory;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class EvaluationListenerTest {
+    private static final String WORKFLOW = """
+        workflow 'metrics'
+            ruleset 'domestic' country = 'AR' then
+                'missing' score > 10 return review
+                'high' amount > 1000 return block
+                'low' amount > 10 return allow
+            ruleset 'fallback'
+                'always' amount > 0 return allow
+            default allow
+        end
+    """;
+
+    @Test
+    public void givenListenerWhenEvaluatingMustReportRulesetsAndRulesInOrder() {
+        List<String> events = new ArrayList<>();
+        EvaluationListener listener = new EvaluationListener() {
+            @Override
+            public void rulesetEvaluated(String workflow, String ruleset, long nanos, boolean matched,
+                                         WarningCategory category) {
+                Assertions.assertTrue(nanos >= 0);
+                events.add(workflow + "/" + ruleset + " " + matched + " " + category);
+            }
+
+            @Override
+            public void ruleEvaluated(String workflow, String ruleset, String rule, long nanos, boolean matched,
+                                      WarningCategory category) {
+                Assertions.assertTrue(nanos >= 0);
+                events.add(workflow + "/" + ruleset + "/" + rule + " " + matched + " " + category);
+            }
+        };
+        Workflow ruleEngine = new Workflow(WORKFLOW).withListener(listener);
+
+        WorkflowResult result = ruleEngine.evaluate(Map.of("country", "AR", "amount", 5000));
+
+        Assertions.assertEquals("block", result.getResult());
+        Assertions.assertEquals(List.of(
+            "metrics/domestic true NONE",
+            "metrics/domestic/missing false PROPERTY_NOT_FOUND",
+            "metrics/domestic/high true NONE"), events);
+
+        events.clear();
+        ruleEngine.evaluate(Map.of("country", "UY", "amount", 5));
+        Assertions.assertEquals(List.of(
+            "metrics/domestic false NONE",
+            "metrics/fallback/always true NONE"), events);
+    }
+
+    @Test
+    public void givenRuleMetricsWhenEvaluatingMustCountEvaluationsMatchesAndWarnings() {
+        RuleMetrics metrics = new RuleMetrics();
+        Workflow ruleEngine = new Workflow(WORKFLOW).withListener(metrics);
+
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(Map.of("country", i % 2 == 0 ? "AR" : "UY", "amount", i * 20));
+        }
+        ruleEngine.evaluateBatch(requests);
+
+        RuleMetrics.Entry domestic = entry(metrics, "domestic", null);
+        Assertions.assertEquals(100, domestic.getEvaluations());
+        Assertions.assertEquals(50, domestic.getMatches());
+        Assertions.assertEquals(100, domestic.getLatency().getCount());
+
+        RuleMetrics.Entry missing = entry(metrics, "domestic", "missing");
+        Assertions.assertEquals(50, missing.getEvaluations());
+        Assertions.assertEquals(0, missing.getMatches());
+        Assertions.assertEquals(50, missing.getWarnings(WarningCategory.PROPERTY_NOT_FOUND));
+        Assertions.assertEquals(0, missing.getWarnings(WarningCategory.UNEXPECTED_ERROR));
+
+        // Even requests with amount > 1000 are i >= 52
+        RuleMetrics.Entry high = entry(metrics, "domestic", "high");
+        Assertions.assertEquals(50, high.getEvaluations());
+        Assertions.assertEquals(24, high.getMatches());
+
+        // Every UY request plus the AR request with amount 0, which no domestic rule matches
+        RuleMetrics.Entry always = entry(metrics, "fallback", "always");
+        Assertions.assertEquals(51, always.getEvaluations());
+        Assertions.assertEquals(50, always.getMatches());
+    }
+
+    @Test
+    public void givenNoListenerWhenEvaluatingMustReturnSameResults() {
+        Workflow plain = new Workflow(WORKFLOW);
+        Workflow measured = plain.withListener(new RuleMetrics());
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> request = Map.of("country", i % 3 == 0 ? "AR" : "CL", "amount", i * 50);
+            Assertions.assertEquals(plain.evaluate(request), measured.evaluate(request));
+        }
+    }
+
+    @Test
+    public void givenRecordedLatenciesWhenSnapshottingMustReportPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        Assertions.assertEquals(10_000, snapshot.getCount());
+        Assertions.assertEquals(10_000_000, snapshot.getMax());
+        Assertions.assertEquals(5_000_500.0, snapshot.getMean(), 0.001);
+        Assertions.assertEquals(5_000_000, snapshot.getValueAtPercentile(50), 5_000_000 * 0.04);
+        Assertions.assertEquals(9_900_000, snapshot.getValueAtPercentile(99), 9_900_000 * 0.04);
+        Assertions.assertEquals(10_000_000, snapshot.getValueAtPercentile(100));
+        Assertions.assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(99));
+    }
+
+    private static RuleMetrics.Entry entry(RuleMetrics metrics, String ruleset, String rule) {
+        return metrics.snapshot().stream()
+            .filter(it -> it.getRuleset().equals(ruleset) && java.util.Objects.equals(it.getRule(), rule))
+            .findFirst()
+            .orElseThrow();
+    }
+}
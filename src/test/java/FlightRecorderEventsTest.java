@@ -0,0 +1,82 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.jfr.RuleEvaluated;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+class FlightRecorderEventsTest {
+    private static final String WORKFLOW = """
+        workflow 'recorded'
+            ruleset 'screening'
+                'missing' score > 10 return review
+                'hit' screening(user_id).hits > 0 and screening(user_id).hits < 10 return block
+            default allow
+        end
+    """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void givenRecordingWhenEvaluatingMustEmitWorkflowRuleAndFunctionEvents() throws Exception {
+        RuleflowFunction screening = args -> Map.of("hits", 3);
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        Path file = directory.resolve("ruleflow.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.gatekeeperx.ruleflow.WorkflowEvaluated");
+            recording.enable("com.gatekeeperx.ruleflow.RuleEvaluated").withThreshold(Duration.ZERO);
+            recording.enable("com.gatekeeperx.ruleflow.CustomFunctionCalled");
+            recording.start();
+            ruleEngine.evaluate(Map.of("user_id", "u1"), Map.of(), Map.of("screening", screening));
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> workflows = events("com.gatekeeperx.ruleflow.WorkflowEvaluated", events);
+        Assertions.assertEquals(1, workflows.size());
+        Assertions.assertEquals("recorded", workflows.get(0).getString("workflow"));
+        Assertions.assertEquals("screening", workflows.get(0).getString("ruleset"));
+        Assertions.assertEquals("hit", workflows.get(0).getString("rule"));
+        Assertions.assertEquals(1, workflows.get(0).getInt("warningCount"));
+
+        List<RecordedEvent> rules = events("com.gatekeeperx.ruleflow.RuleEvaluated", events);
+        Assertions.assertEquals(List.of("missing", "hit"), rules.stream().map(it -> it.getString("rule")).toList());
+        Assertions.assertFalse(rules.get(0).getBoolean("matched"));
+        Assertions.assertEquals("PROPERTY_NOT_FOUND", rules.get(0).getString("warning"));
+        Assertions.assertTrue(rules.get(1).getBoolean("matched"));
+        Assertions.assertEquals("NONE", rules.get(1).getString("warning"));
+
+        List<RecordedEvent> calls = events("com.gatekeeperx.ruleflow.CustomFunctionCalled", events);
+        Assertions.assertEquals(List.of(false, true), calls.stream().map(it -> it.getBoolean("cacheHit")).toList());
+        Assertions.assertTrue(calls.stream().allMatch(it -> "screening".equals(it.getString("function"))));
+    }
+
+    @Test
+    public void givenRuleEventWhenNotConfiguredMustDefaultToOneMillisecondThreshold() {
+        EventType type = EventType.getEventType(RuleEvaluated.class);
+        Assertions.assertEquals("1 ms", type.getSettingDescriptors().stream()
+            .filter(it -> it.getName().equals("threshold"))
+            .findFirst()
+            .orElseThrow()
+            .getDefaultValue());
+    }
+
+    private static List<RecordedEvent> events(String name, List<RecordedEvent> events) {
+        return events.stream()
+            .filter(it -> it.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .toList();
+    }
+}
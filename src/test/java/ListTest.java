@@ -3,9 +3,12 @@ import com.gatekeeperx.ruleflow.vo.WorkflowResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class ListTest {
 
@@ -358,4 +361,68 @@ class ListTest {
         Assertions.assertEquals(expectedResult, result);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testListPredicatesReadEachItemOwnFields() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'flagged' transactions.count { it.amount > 100 and flagged = true } = 2
+                        and transactions.all { currency = 'USD' }
+                        and transactions.any { it.amount < 10 } return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        List<Map<String, Object>> transactions = new ArrayList<>();
+        transactions.add(Map.of("amount", 500, "currency", "USD", "flagged", true));
+        transactions.add(Map.of("amount", 5, "currency", "USD", "flagged", true));
+        for (int i = 0; i < 200; i++) {
+            transactions.add(Map.of("amount", 150 + i, "currency", "USD", "flagged", false));
+        }
+        transactions.add(Map.of("amount", 900, "currency", "USD", "flagged", true));
+
+        WorkflowResult result = ruleEngine.evaluate(Map.of("transactions", transactions));
+
+        Assertions.assertEquals(new WorkflowResult("test", "dummy", "flagged", "block"), result);
+    }
+
+    @Test
+    public void testAggregationsOverOnePropertyShareOnePass() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'velocity'
+                    'many_large' txns.count { amount > 100 } > 3 return block
+                    'foreign' txns.any { country = 'RU' } and txns.average { amount > 100 } > 0.9 return review
+                    'broken' txns.all { missing > 1 } return block
+                    'mostly_large' txns.average { amount > 100 } >= 0.5 and txns.count() = 4 return review
+                default allow
+            end
+        """;
+
+        AtomicInteger reads = new AtomicInteger();
+        Map<String, Object> request = new HashMap<>() {
+            @Override
+            public Object get(Object key) {
+                if ("txns".equals(key)) {
+                    reads.incrementAndGet();
+                }
+                return super.get(key);
+            }
+        };
+        request.put("txns", List.of(
+            Map.of("amount", 150, "country", "US"),
+            Map.of("amount", 50, "country", "US"),
+            Map.of("amount", 200, "country", "MX"),
+            Map.of("amount", 300, "country", "US")
+        ));
+
+        WorkflowResult result = new Workflow(workflow).evaluate(request);
+
+        // The failing aggregation is reported for its own rule only
+        Assertions.assertEquals("mostly_large", result.getRule());
+        Assertions.assertEquals("review", result.getResult());
+        Assertions.assertEquals(Set.of("missing field cannot be found"), result.getWarnings());
+        Assertions.assertEquals(1, reads.get());
+    }
+}
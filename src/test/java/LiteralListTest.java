@@ -0,0 +1,95 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class LiteralListTest {
+
+    @Test
+    public void givenLargeLiteralListWhenValueIsPresentMustMatch() {
+        String countries = IntStream.range(0, 500)
+            .mapToObj(i -> "'C" + i + "'")
+            .collect(Collectors.joining(", "));
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'country' country in %s return block
+                default allow
+            end
+        """.formatted(countries);
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals(
+            new WorkflowResult("test", "dummy", "country", "block"),
+            ruleEngine.evaluate(Map.of("country", "C499")));
+        Assertions.assertEquals(
+            new WorkflowResult("test", "default", "default", "allow"),
+            ruleEngine.evaluate(Map.of("country", "C500")));
+    }
+
+    @Test
+    public void givenNotInLiteralListWithDuplicatesMustNegateMembership() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'country' country not in 'AR', 'BR', 'AR' return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("country", "AR")).getResult());
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("country", "UY")).getResult());
+    }
+
+    @Test
+    public void givenNumericValueWhenLiteralListHoldsSameDigitsMustNotMatch() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'mcc' mcc in '5411', '5812' return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("mcc", "5411")).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("mcc", 5411)).getResult());
+    }
+
+    @Test
+    public void givenContainsLiteralListMustMatchAnySubstring() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'email' email contains 'tempmail', 'fraud', 'mailinator' return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("email", "x@mailinator.com")).getResult());
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("email", "tempmail@x.com")).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("email", "mail@x.com")).getResult());
+    }
+
+    @Test
+    public void givenStartsWithLiteralListMustMatchAnyPrefix() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'bin' card_number starts_with '4111', '5500', '37' return block
+                default allow
+            end
+        """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("card_number", "4111111111111111")).getResult());
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("card_number", "371449635398431")).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("card_number", "4000111111111111")).getResult());
+    }
+}
@@ -199,4 +199,39 @@ class MathTest {
             ruleEngine.evaluate(Map.of("y", 10))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void given_constant_sub_expressions_when_evaluating_must_use_folded_values() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'item_a' seconds > 10 * 60 and prefix = 'ab' + 'c' return block
+                default allow
+            end
+        """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Assertions.assertEquals(
+            new WorkflowResult("test", "dummy", "item_a", "block"),
+            ruleEngine.evaluate(Map.of("seconds", 601, "prefix", "abc"))
+        );
+        Assertions.assertEquals(
+            new WorkflowResult("test", "default", "default", "allow"),
+            ruleEngine.evaluate(Map.of("seconds", 600, "prefix", "abc"))
+        );
+    }
+
+    @Test
+    public void given_invalid_constant_expression_when_evaluating_must_fail_at_evaluation() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'item_a' 'abc' - 1 = 0 return block
+                default allow
+            end
+        """;
+        Workflow ruleEngine = new Workflow(workflow);
+        WorkflowResult result = ruleEngine.evaluate(Map.of());
+        Assertions.assertEquals("allow", result.getResult());
+        Assertions.assertTrue(result.isError());
+    }
+}
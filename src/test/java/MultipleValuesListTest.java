@@ -1,5 +1,7 @@
 import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
 import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Assertions;
@@ -99,4 +101,62 @@ public class MultipleValuesListTest {
     Assertions.assertEquals("allow", result.getResult());
   }
 
+  @Test
+  public void testTupleIndexWithRegisteredMapList() {
+    String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'card' (card.country, card.bin, merchant.mcc) in list('card_blacklist') return block
+               default allow
+               end
+            """;
+    Workflow ruleEngine = new Workflow(workflow);
+
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("country", "AR");
+    first.put("bin", "411111");
+    first.put("mcc", "5411");
+    Map<String, Object> second = new LinkedHashMap<>();
+    second.put("country", "BR");
+    second.put("bin", "550000");
+    second.put("mcc", "5812");
+    StoredListIndex lists = StoredListIndex.of(Map.of("card_blacklist", List.of(first, second)));
+
+    WorkflowResult blocked = ruleEngine.evaluate(Map.of(
+        "card", Map.of("country", "BR", "bin", "550000"),
+        "merchant", Map.of("mcc", "5812")
+    ), lists);
+    WorkflowResult reordered = ruleEngine.evaluate(Map.of(
+        "card", Map.of("country", "411111", "bin", "AR"),
+        "merchant", Map.of("mcc", "5411")
+    ), lists);
+
+    Assertions.assertEquals("block", blocked.getResult());
+    Assertions.assertEquals("allow", reordered.getResult());
+  }
+
+  @Test
+  public void testTupleIndexIgnoresListsOfOtherWidth() {
+    String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'device_and_merchant' (device.fingerprint, order.merchant.merchantId) in list('fingerprint_merchant_blacklist') return block
+               default allow
+               end
+            """;
+    Workflow ruleEngine = new Workflow(workflow);
+    StoredListIndex lists = StoredListIndex.of(Map.of(
+        "fingerprint_merchant_blacklist", List.of(
+            List.of("fp-123", "merchant-001"),
+            List.of("fp-456", "merchant-002", "extra")
+        )
+    ));
+
+    WorkflowResult result = ruleEngine.evaluate(Map.of(
+        "device", Map.of("fingerprint", "fp-123"),
+        "order", Map.of("merchant", Map.of("merchantId", "merchant-001"))
+    ), lists);
+
+    Assertions.assertEquals("allow", result.getResult());
+  }
 }
@@ -0,0 +1,105 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.stream.NdjsonEvaluator;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class NdjsonEvaluatorTest {
+
+    private static final String WORKFLOW = """
+        workflow 'stream'
+            ruleset 'scoring'
+                'base' amount > 0 set $score = amount * 2 continue
+                'blocked' user_id in list('blocked') return block
+                'high' $score > 100 return review
+            default allow
+        end
+    """;
+
+    private final Workflow ruleEngine = new Workflow(WORKFLOW);
+    private final StoredListIndex lists = StoredListIndex.of(Map.of("blocked", List.of("u3")));
+
+    @Test
+    public void givenNdjsonInputWhenEvaluatingMustWriteOneResultPerLineInOrder() throws IOException {
+        String input = """
+            {"user_id": "u1", "amount": 10}
+            {"user_id": "u3", "amount": 10}
+
+            {"user_id": "u1", "amount": 80}
+            not json
+            {"user_id": "u2"}
+            """;
+
+        List<String> lines = run(new NdjsonEvaluator(ruleEngine, lists, Map.of()), input);
+
+        Assertions.assertEquals(5, lines.size());
+        Assertions.assertEquals("allow", field(lines.get(0), "result"));
+        Assertions.assertEquals("block", field(lines.get(1), "result"));
+        Assertions.assertEquals("review", field(lines.get(2), "result"));
+        Assertions.assertEquals(160.0, JsonParser.parseString(lines.get(2)).getAsJsonObject()
+            .getAsJsonObject("variables").get("score").getAsDouble());
+        JsonObject error = JsonParser.parseString(lines.get(3)).getAsJsonObject();
+        Assertions.assertEquals(5, error.get("line").getAsLong());
+        Assertions.assertTrue(error.has("error"));
+        Assertions.assertEquals("allow", field(lines.get(4), "result"));
+        Assertions.assertTrue(JsonParser.parseString(lines.get(4)).getAsJsonObject()
+            .getAsJsonArray("warnings").size() > 0);
+    }
+
+    @Test
+    public void givenParallelWorkersWhenEvaluatingMustMatchSequentialOutput() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            input.append("{\"user_id\": \"u").append(i % 5).append("\", \"amount\": ").append(i % 90).append("}\n");
+        }
+
+        List<String> sequential = run(new NdjsonEvaluator(ruleEngine, lists, Map.of()), input.toString());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> parallel = run(
+                new NdjsonEvaluator(ruleEngine, lists, Map.of(), executor, 100, 7), input.toString());
+            Assertions.assertEquals(1_000, parallel.size());
+            Assertions.assertEquals(sequential, parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void givenFileWhenEvaluatingThroughMappingMustMatchStreamOutput(@TempDir Path dir) throws IOException {
+        String input = "{\"user_id\": \"u3\", \"amount\": 5}\n{\"user_id\": \"u1\", \"amount\": 70}\n";
+        Path file = Files.writeString(dir.resolve("requests.ndjson"), input);
+        NdjsonEvaluator evaluator = new NdjsonEvaluator(ruleEngine, lists, Map.of());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long written = evaluator.evaluate(file, output);
+
+        Assertions.assertEquals(2, written);
+        Assertions.assertEquals(run(evaluator, input),
+            List.of(output.toString(StandardCharsets.UTF_8).split("\n")));
+    }
+
+    private static List<String> run(NdjsonEvaluator evaluator, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        evaluator.evaluate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        return List.of(output.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private static String field(String json, String name) {
+        return JsonParser.parseString(json).getAsJsonObject().get(name).getAsString();
+    }
+}
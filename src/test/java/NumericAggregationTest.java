@@ -0,0 +1,198 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.vo.Action;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class NumericAggregationTest {
+
+    private static final List<Map<String, Object>> TXNS = List.of(
+        Map.of("amount", 150, "country", "US"),
+        Map.of("amount", 50, "country", "US"),
+        Map.of("amount", 200.5, "country", "MX"),
+        Map.of("amount", 300, "country", "US")
+    );
+
+    private static String evaluate(String condition, Map<String, Object> request) {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'matched' %s return block
+                default allow
+            end
+        """.formatted(condition);
+        return new Workflow(workflow).evaluate(request).getResult();
+    }
+
+    @Test
+    public void testSumMinMaxAvg() {
+        Map<String, Object> request = Map.of("txns", TXNS);
+        Assertions.assertEquals("block", evaluate("txns.sum { amount } = 700.5", request));
+        Assertions.assertEquals("block", evaluate("txns.min { amount } = 50", request));
+        Assertions.assertEquals("block", evaluate("txns.max { it.amount } = 300", request));
+        Assertions.assertEquals("block", evaluate("txns.avg { amount } > 175", request));
+        Assertions.assertEquals("allow", evaluate("txns.avg { amount } > 176", request));
+    }
+
+    @Test
+    public void testAggregatesScalarItemsWithoutSelector() {
+        Map<String, Object> request = Map.of("scores", List.of(3, 1, 4, 1, 5));
+        Assertions.assertEquals("block", evaluate("scores.sum() = 14", request));
+        Assertions.assertEquals("block", evaluate("scores.max() = 5 and scores.min() = 1", request));
+        Assertions.assertEquals("block", evaluate("scores.percentile(50) = 3", request));
+    }
+
+    @Test
+    public void testPercentileInterpolatesBetweenRanks() {
+        Map<String, Object> request = Map.of("txns", TXNS);
+        // Sorted amounts are 50, 150, 200.5, 300
+        Assertions.assertEquals("block", evaluate("txns.percentile { amount, 50 } = 175.25", request));
+        Assertions.assertEquals("block", evaluate("txns.percentile { amount, 100 } = 300", request));
+        Assertions.assertEquals("block", evaluate("txns.percentile { amount, 0 } = 50", request));
+    }
+
+    @Test
+    public void testIntegralSumsStayExact() {
+        Map<String, Object> request = Map.of("values", List.of(Long.MAX_VALUE - 1, 1L));
+        WorkflowResult result = new Workflow("""
+            workflow 'test'
+                ruleset 'dummy'
+                    'exact' values.sum() = 0 return block
+                default allow
+            end
+        """).evaluate(request);
+        Assertions.assertEquals("allow", result.getResult());
+        Assertions.assertEquals("block", evaluate("values.max() - values.min() > 0", request));
+    }
+
+    @Test
+    public void testNullsAreSkippedAndEmptyListsHaveNoExtremes() {
+        Map<String, Object> request = Map.of("scores", Arrays.asList(null, 10), "empty", List.of());
+        Assertions.assertEquals("block", evaluate("scores.sum() = 10 and scores.avg() = 10", request));
+        Assertions.assertEquals("block", evaluate("empty.sum() = 0", request));
+        Assertions.assertEquals("allow", evaluate("empty.max() > 0", request));
+    }
+
+    @Test
+    public void testNonNumericValuesAreReported() {
+        WorkflowResult result = new Workflow("""
+            workflow 'test'
+                ruleset 'dummy'
+                    'countries' txns.sum { country } > 0 return block
+                default allow
+            end
+        """).evaluate(Map.of("txns", TXNS));
+        Assertions.assertEquals("allow", result.getResult());
+        Assertions.assertFalse(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void testAggregationNamesStayValidFieldNames() {
+        Map<String, Object> request = Map.of(
+            "items", List.of(Map.of("price", 80, "max", 120), Map.of("price", 150, "max", 90)),
+            "user", Map.of("spending_limits", Map.of("max", 100, "sum", 500)),
+            "sum", 7);
+        Assertions.assertEquals("block", evaluate("items.any { price > .user.spending_limits.max }", request));
+        Assertions.assertEquals("block", evaluate("user.spending_limits.sum = 500 and sum = 7", request));
+        Assertions.assertEquals("block", evaluate("items.count { price > max } = 1", request));
+        Assertions.assertEquals("block", evaluate("items.max { price } = 150", request));
+
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'listed' evalInList('limits', elem.sum = 500) return review
+                    'matched' max(user.spending_limits.max, 150) = 150 return block
+                default allow
+            end
+        """;
+        WorkflowResult result = new Workflow(workflow).evaluate(request,
+            Map.of("limits", List.of(Map.of("sum", 400))),
+            Map.of("max", args -> Math.max(((Number) args.get("0")).intValue(), ((Number) args.get("1")).intValue())));
+        Assertions.assertEquals("block", result.getResult());
+    }
+
+    @Test
+    public void testAggregationNamesStayValidResultsActionsAndArguments() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'results' x > 1 return max
+                    'actions' x = 1 return block with sum
+                    'arguments' between(value: x, min: 5, max: 10) return review
+                default min
+            end
+        """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, RuleflowFunction> functions = Map.of("between", args ->
+            ((Number) args.get("value")).intValue() >= ((Number) args.get("min")).intValue()
+                && ((Number) args.get("value")).intValue() <= ((Number) args.get("max")).intValue());
+
+        Assertions.assertEquals("max", ruleEngine.evaluate(Map.of("x", 2), Map.of(), functions).getResult());
+
+        WorkflowResult result = ruleEngine.evaluate(Map.of("x", 1), Map.of(), functions);
+        Assertions.assertEquals("block", result.getResult());
+        Assertions.assertEquals(List.of("sum"), result.getActionCalls().stream().map(Action::getName).toList());
+
+        Assertions.assertEquals("review", ruleEngine.evaluate(Map.of("x", -7), Map.of(),
+            Map.of("between", args -> ((Number) args.get("min")).intValue() == 5 && ((Number) args.get("max")).intValue() == 10)).getResult());
+        Assertions.assertEquals("min", ruleEngine.evaluate(Map.of("x", -7), Map.of(), functions).getResult());
+    }
+
+    @Test
+    public void testRankArityIsCheckedWhenCompiling() {
+        for (String condition : List.of("txns.percentile { amount } > 0", "txns.percentile() > 0", "scores.sum(50) > 0")) {
+            String workflow = """
+                workflow 'test'
+                    ruleset 'dummy'
+                        'invalid' %s return block
+                    default allow
+                end
+            """.formatted(condition);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new Workflow(workflow), condition);
+        }
+    }
+
+    @Test
+    public void testNumericAggregationsJoinOnePass() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'velocity'
+                    'large_total' txns.sum { amount } > 1000 return block
+                    'spread' txns.max { amount } - txns.min { amount } > 200 and txns.count() = 4 return review
+                    'broken' txns.avg { country } > 0 return block
+                    'p90' txns.percentile { amount, 90 } > 250 return review
+                default allow
+            end
+        """;
+
+        AtomicInteger reads = new AtomicInteger();
+        Map<String, Object> request = new HashMap<>() {
+            @Override
+            public Object get(Object key) {
+                if ("txns".equals(key)) {
+                    reads.incrementAndGet();
+                }
+                return super.get(key);
+            }
+        };
+        request.put("txns", TXNS);
+
+        // max - min is 250
+        WorkflowResult result = new Workflow(workflow).evaluate(request);
+        Assertions.assertEquals("spread", result.getRule());
+        Assertions.assertTrue(result.getWarnings().isEmpty());
+        Assertions.assertEquals(1, reads.get());
+
+        // The failing average is reported for its own rule only
+        result = new Workflow(workflow.replace("> 200 and", "> 300 and")).evaluate(request);
+        Assertions.assertEquals("p90", result.getRule());
+        Assertions.assertEquals(1, result.getWarnings().size());
+    }
+}
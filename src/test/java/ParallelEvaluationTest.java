@@ -0,0 +1,93 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelEvaluationTest {
+
+    private static final String WORKFLOW = """
+        workflow 'parallel'
+            ruleset 'scoring'
+                'base' amount > 0 set $score = amount * 2 continue
+                'blocked' evalInList('users', elem.id = user_id and elem.status = 'blocked') return block
+                'scored' risk(user_id) > 2 and $score > 100 return review
+            default allow
+        end
+    """;
+
+    private final StoredListIndex lists = StoredListIndex.of(Map.of("users", List.of(
+        Map.of("id", "u1", "status", "active"),
+        Map.of("id", "u2", "status", "blocked")
+    )));
+    private final Map<String, RuleflowFunction> functions = Map.of(
+        "risk", args -> Integer.parseInt(args.get("0").toString().substring(1)));
+
+    @Test
+    public void givenForkJoinPoolWhenEvaluatingInParallelMustMatchSequentialResults() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        List<Map<String, Object>> requests = requests(1_000);
+        List<WorkflowResult> sequential = ruleEngine.evaluateBatch(requests, lists, functions);
+
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            for (int chunkSize : new int[] {1, 7, 64, 5_000}) {
+                List<WorkflowResult> parallel = ruleEngine.evaluateParallel(requests, lists, functions, pool, chunkSize);
+                assertSameResults(sequential, parallel);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void givenVirtualThreadExecutorWhenEvaluatingInParallelMustMatchSequentialResults() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        List<Map<String, Object>> requests = requests(500);
+        List<WorkflowResult> sequential = ruleEngine.evaluateBatch(requests, lists, functions);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<WorkflowResult> parallel = ruleEngine.evaluateParallel(requests, lists, functions, executor, 13);
+            assertSameResults(sequential, parallel);
+        }
+    }
+
+    @Test
+    public void givenEmptyBatchWhenEvaluatingInParallelMustReturnEmptyList() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+
+        Assertions.assertTrue(ruleEngine.evaluateParallel(List.of(), Runnable::run, 10).isEmpty());
+    }
+
+    @Test
+    public void givenNonPositiveChunkSizeWhenEvaluatingInParallelMustFail() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ruleEngine.evaluateParallel(requests(10), Runnable::run, 0));
+    }
+
+    private static List<Map<String, Object>> requests(int size) {
+        List<Map<String, Object>> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(Map.of("user_id", "u" + (i % 6), "amount", i % 90));
+        }
+        return requests;
+    }
+
+    private static void assertSameResults(List<WorkflowResult> expected, List<WorkflowResult> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i), actual.get(i));
+            Assertions.assertEquals(expected.get(i).getVariables(), actual.get(i).getVariables());
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.errors.PropertyNotFoundException;
 import com.gatekeeperx.ruleflow.vo.WorkflowResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
@@ -139,4 +140,42 @@ class PropertyContextEvaluatorUnitTest {
 
         Assertions.assertEquals(expectedResult, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenMissingPropertiesWhenEvaluatingRepeatedlyMustReportSameWarnings() {
+        String workflow = """
+            workflow 'test'
+                ruleset 'dummy'
+                    'nested' user.address.city = 'Lima' return block
+                    'variable' $score > 10 return review
+                    'listed' country in 'AR', 'UY' return review
+                default allow
+            end
+        """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Set<String> expectedWarnings = Set.of(
+            "address field cannot be found",
+            "Variable $score is not defined",
+            "country field cannot be found");
+
+        for (int i = 0; i < 3; i++) {
+            WorkflowResult result = ruleEngine.evaluate(Map.of("user", Map.of("name", "Jane")));
+            Assertions.assertEquals("allow", result.getResult());
+            Assertions.assertEquals(expectedWarnings, result.getWarnings());
+        }
+    }
+
+    @Test
+    public void givenStacklessExceptionWhenWrappingMustReuseWrapperWithoutStackTrace() {
+        PropertyNotFoundException missing = PropertyNotFoundException.stackless("user_id field cannot be found");
+        RuntimeException wrapped = missing.wrapped();
+
+        Assertions.assertEquals(0, missing.getStackTrace().length);
+        Assertions.assertEquals(0, wrapped.getStackTrace().length);
+        Assertions.assertSame(wrapped, missing.wrapped());
+        Assertions.assertSame(missing, wrapped.getCause());
+        Assertions.assertEquals(new RuntimeException(new PropertyNotFoundException("user_id field cannot be found")).getMessage(),
+            wrapped.getMessage());
+        Assertions.assertNotSame(new PropertyNotFoundException("x").wrapped(), new PropertyNotFoundException("x").wrapped());
+    }
+}
@@ -91,4 +91,21 @@ class RegexTest {
 
         Assertions.assertEquals(expectedResult, result);
     }
+
+    @Test
+    public void givenInvalidPatternWhenEvaluatingShouldWarnAndSkipRule() {
+        String workflow = """
+        workflow 'test'
+            ruleset 'dummy'
+                'item_a' regex_strip(x, '[a-') = 'user' return block
+            default allow
+        end
+    """;
+
+        Workflow ruleEngine = new Workflow(workflow);
+        WorkflowResult result = ruleEngine.evaluate(Map.of("x", "user"));
+
+        Assertions.assertEquals("allow", result.getResult());
+        Assertions.assertFalse(result.getWarnings().isEmpty());
+    }
 }
\ No newline at end of file
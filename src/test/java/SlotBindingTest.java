@@ -0,0 +1,85 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.binding.RowSchema;
+import com.gatekeeperx.ruleflow.binding.SlotRow;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class SlotBindingTest {
+    private static final String WORKFLOW = """
+        workflow 'slots'
+            ruleset 'fraud'
+                'blocked_country' country in 'KP', 'IR' return block
+                'high' amount > 1000 and user.verified = false return review with manual_review({'user': user.id})
+                'screening' user.profile.risk > 80 return review
+            default allow
+        end
+    """;
+
+    @Test
+    public void givenSlotRowsWhenEvaluatingMustMatchMapRequests() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        RowSchema schema = RowSchema.of("country", "amount", "user");
+        Random random = new Random(7);
+        String[] countries = {"AR", "KP", "UY", null};
+
+        for (int i = 0; i < 500; i++) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("id", "u" + i);
+            if (random.nextBoolean()) {
+                user.put("verified", random.nextBoolean());
+            }
+            if (random.nextInt(3) > 0) {
+                user.put("profile", Map.of("risk", random.nextInt(100)));
+            }
+            Object[] values = {countries[random.nextInt(countries.length)],
+                random.nextInt(4) == 0 ? null : random.nextInt(2000), user};
+
+            Map<String, Object> request = new HashMap<>();
+            for (int slot = 0; slot < values.length; slot++) {
+                if (values[slot] != null) {
+                    request.put(schema.getField(slot), values[slot]);
+                }
+            }
+
+            WorkflowResult expected = ruleEngine.evaluate(request);
+            WorkflowResult actual = ruleEngine.evaluate(schema.row(values));
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void givenDifferentSchemasWhenEvaluatingSameWorkflowMustResolveEachSchemaSlots() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        RowSchema first = RowSchema.of("country", "amount", "user");
+        RowSchema second = RowSchema.of("user", "amount");
+        Map<String, Object> user = Map.of("id", "u1", "verified", false);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("block", ruleEngine.evaluate(first.row("KP", 10, user)).getResult());
+            WorkflowResult result = ruleEngine.evaluate(second.row(user, 10));
+            Assertions.assertEquals("allow", result.getResult());
+            Assertions.assertTrue(result.getWarnings().contains("country field cannot be found"));
+            Assertions.assertEquals("review", ruleEngine.evaluate(first.row("AR", 5000, user)).getResult());
+        }
+    }
+
+    @Test
+    public void givenSlotRowWhenReadAsMapMustSkipNullSlots() {
+        RowSchema schema = RowSchema.of("a", "b", "c");
+        SlotRow row = schema.row(1, null, "x");
+
+        Assertions.assertEquals(Map.of("a", 1, "c", "x"), row);
+        Assertions.assertEquals(2, row.size());
+        Assertions.assertFalse(row.containsKey("b"));
+        Assertions.assertNull(row.get("missing"));
+        Assertions.assertEquals(List.of("a", "b", "c"), schema.getFields());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> schema.row(1, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RowSchema.of("a", "a"));
+    }
+}
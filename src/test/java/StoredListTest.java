@@ -1,8 +1,10 @@
 import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
 import com.gatekeeperx.ruleflow.vo.WorkflowResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -197,4 +199,169 @@ public class StoredListTest {
         Assertions.assertEquals(expectedResult, result);
     }
 
+    @Test
+    public void testTupleInListWithNullMapValueIsReported() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'device_and_merchant' (device.fingerprint, order.merchantId) in list('blacklist') return block
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+
+        Map<String, String> complete = new LinkedHashMap<>();
+        complete.put("fingerprint", "fp-123");
+        complete.put("merchantId", "merchant-001");
+        Map<String, String> partial = new LinkedHashMap<>();
+        partial.put("fingerprint", "fp-456");
+        partial.put("merchantId", null);
+        Map<String, List<?>> lists = Map.of("blacklist", List.of(partial, complete));
+
+        for (StoredListIndex index : List.of(StoredListIndex.of(lists), StoredListIndex.unindexed(lists))) {
+            WorkflowResult match = ruleEngine.evaluate(Map.of(
+                    "device", Map.of("fingerprint", "fp-123"),
+                    "order", Map.of("merchantId", "merchant-001")
+            ), index);
+            Assertions.assertEquals("block", match.getResult());
+
+            // Without a match the null value cannot be ruled out, so it is reported
+            WorkflowResult noMatch = ruleEngine.evaluate(Map.of(
+                    "device", Map.of("fingerprint", "fp-456"),
+                    "order", Map.of("merchantId", "merchant-002")
+            ), index);
+            Assertions.assertEquals("allow", noMatch.getResult());
+            Assertions.assertFalse(noMatch.getWarnings().isEmpty());
+        }
+    }
+
+    // ========== Tests for registered StoredListIndex ==========
+
+    @Test
+    public void testRegisteredIndexReusedAcrossEvaluations() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'bin' card.bin in list('bin_blacklist') return block
+                   'device' device.fingerprint not in list('trusted_devices') return review
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+        StoredListIndex lists = StoredListIndex.of(Map.of(
+                "bin_blacklist", List.of(411111, 550000),
+                "trusted_devices", List.of(
+                        Map.of("fingerprint", "fp-123", "owner", "u1"),
+                        Map.of("fingerprint", "fp-456", "owner", "u2")
+                )
+        ));
+
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of(
+                "card", Map.of("bin", "411111"),
+                "device", Map.of("fingerprint", "fp-123")
+        ), lists).getResult());
+        Assertions.assertEquals("review", ruleEngine.evaluate(Map.of(
+                "card", Map.of("bin", "400000"),
+                "device", Map.of("fingerprint", "fp-999")
+        ), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of(
+                "card", Map.of("bin", "400000"),
+                "device", Map.of("fingerprint", "fp-456")
+        ), lists).getResult());
+    }
+
+    @Test
+    public void testRegisteredIndexMapElementsMatchOnlyStringValues() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'user' user_id in list('blocked_users') return block
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+        StoredListIndex lists = StoredListIndex.of(Map.of(
+                "blocked_users", List.of(Map.of("id", 42, "name", "jane"))
+        ));
+
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("user_id", "jane"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", 42), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", "jane"), StoredListIndex.empty()).getResult());
+    }
+
+    @Test
+    public void testUnindexedListsMatchRegisteredIndex() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'user' user_id in list('blocked_users') return block
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of(
+                "blocked_users", Arrays.asList(null, 42, Map.of("id", 7, "name", "jane"))
+        );
+        StoredListIndex indexed = StoredListIndex.of(lists);
+        StoredListIndex unindexed = StoredListIndex.unindexed(lists);
+        Assertions.assertFalse(unindexed.get("blocked_users").isIndexed());
+
+        for (Object userId : List.of("42", 42, "jane", 7, "7", "null", "john")) {
+            Map<String, Object> request = Map.of("user_id", userId);
+            String expected = ruleEngine.evaluate(request, indexed).getResult();
+            Assertions.assertEquals(expected, ruleEngine.evaluate(request, unindexed).getResult(), "user_id " + userId);
+            Assertions.assertEquals(expected, ruleEngine.evaluate(request, lists).getResult(), "user_id " + userId);
+        }
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("user_id", 42), lists).getResult());
+        Assertions.assertEquals("block", ruleEngine.evaluate(Map.of("user_id", "jane"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("user_id", 7), lists).getResult());
+    }
+
+    @Test
+    public void testUnindexedContainsListMatchesRegisteredIndex() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'keyword' description contains list('keywords') return review
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of(
+                "keywords", Arrays.asList(null, "fraud", 404, Map.of("term", "scam"))
+        );
+        StoredListIndex indexed = StoredListIndex.of(lists);
+
+        for (String description : List.of("fraudulent", "error 404", "a scam", "groceries", "")) {
+            Map<String, Object> request = Map.of("description", description);
+            Assertions.assertEquals(ruleEngine.evaluate(request, indexed).getResult(),
+                    ruleEngine.evaluate(request, lists).getResult(), "description " + description);
+        }
+        Assertions.assertEquals("review", ruleEngine.evaluate(Map.of("description", "a scam"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("description", "groceries"), lists).getResult());
+    }
+
+    @Test
+    public void testUnindexedStartsWithListMatchesRegisteredIndex() {
+        String workflow = """
+           workflow 'test'
+               ruleset 'dummy'
+                   'prefix' phone starts_with list('prefixes') return review
+               default allow
+               end
+            """;
+        Workflow ruleEngine = new Workflow(workflow);
+        Map<String, List<?>> lists = Map.of(
+                "prefixes", Arrays.asList(null, "+99", 54, Map.of("code", "+1"))
+        );
+        StoredListIndex indexed = StoredListIndex.of(lists);
+
+        for (String phone : List.of("+99 123", "5411", "+1 555", "+9", "", "123")) {
+            Map<String, Object> request = Map.of("phone", phone);
+            Assertions.assertEquals(ruleEngine.evaluate(request, indexed).getResult(),
+                    ruleEngine.evaluate(request, lists).getResult(), "phone " + phone);
+        }
+        Assertions.assertEquals("review", ruleEngine.evaluate(Map.of("phone", "+1 555"), lists).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(Map.of("phone", "+9"), lists).getResult());
+    }
 }
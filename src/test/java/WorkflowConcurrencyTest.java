@@ -0,0 +1,127 @@
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.functions.RuleflowFunction;
+import com.gatekeeperx.ruleflow.lists.StoredListIndex;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class WorkflowConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String WORKFLOW = """
+        workflow 'concurrent'
+            ruleset 'scoring'
+                'base' amount > 0 set $score = amount * 2 continue
+                'blocked' evalInList('users', elem.id = user_id and elem.status = 'blocked') return block
+                'email' regex_strip(email, '@mail[.]com') = 'fraudster' return block
+                'risky' user_id in list('risky') return review
+                'scored' risk(user_id) > 50 and $score > 100 return review
+            default allow
+        end
+        """;
+
+    @Test
+    public void givenSharedWorkflowWhenEvaluatingConcurrentlyMustMatchSequentialResults() throws Exception {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        StoredListIndex lists = StoredListIndex.of(Map.of(
+            "users", List.of(
+                Map.of("id", "u1", "status", "active"),
+                Map.of("id", "u2", "status", "blocked")),
+            "risky", List.of("u3", "u5")
+        ));
+        // Stateless and thread-safe, as the contract requires of custom functions
+        RuleflowFunction risk = args -> args.get("0").toString().hashCode() % 100;
+        Map<String, RuleflowFunction> functions = Map.of("risk", risk);
+
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            requests.add(Map.of(
+                "user_id", "u" + (i % 8),
+                "amount", i * 3,
+                "email", i % 5 == 0 ? "fraudster@mail.com" : "bob@mail.com"));
+        }
+        List<WorkflowResult> expected = requests.stream()
+            .map(request -> new Workflow(WORKFLOW).evaluate(request, lists, functions))
+            .toList();
+        Assertions.assertEquals(Set.of("allow", "block", "review"),
+            expected.stream().map(WorkflowResult::getResult).collect(Collectors.toSet()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int mismatches = 0;
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        int index = (i + offset) % requests.size();
+                        WorkflowResult result = ruleEngine.evaluate(requests.get(index), lists, functions);
+                        if (!expected.get(index).equals(result)
+                            || !expected.get(index).getVariables().equals(result.getVariables())) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                Assertions.assertEquals(0, future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenSharedWorkflowWhenEvaluatingConcurrentlyMustKeepWarningsPerRequest() throws Exception {
+        Workflow ruleEngine = new Workflow("""
+            workflow 'warnings'
+                ruleset 'dummy'
+                    'rule_a' user_id = 15 return block
+                default allow
+            end
+            """);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                boolean missing = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        Map<String, Object> request = missing ? Map.of("other", 1) : Map.of("user_id", 15);
+                        WorkflowResult result = ruleEngine.evaluate(request);
+                        boolean ok = missing
+                            ? result.getWarnings().equals(Set.of("user_id field cannot be found"))
+                            : result.getWarnings().isEmpty() && "block".equals(result.getResult());
+                        if (!ok) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assertions.assertTrue(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.gatekeeperx.ruleflow.binding;
+
+import com.gatekeeperx.ruleflow.Workflow;
+import com.gatekeeperx.ruleflow.vo.Action;
+import com.gatekeeperx.ruleflow.vo.WorkflowResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class BeanRowTest {
+    private static final String WORKFLOW = """
+        workflow 'beans'
+            ruleset 'fraud'
+                'blocked' customer.country in 'KP', 'IR' return block
+                'unverified' amount > 1000 and customer.verified = false return review with manual_review({'user': customer.id})
+                'velocity' transactions.count { it.amount > 500 } > 2 return review
+                'vip' customer.tier = 'gold' return allow
+            default allow
+        end
+    """;
+
+    record Transaction(double amount, String currency) {
+    }
+
+    record Customer(String id, String country, boolean verified, String tier) {
+    }
+
+    record Order(double amount, Customer customer, List<Transaction> transactions) {
+    }
+
+    public static class Account {
+        public String owner = "acme";
+        private final long balance;
+        private final boolean frozen;
+
+        public Account(long balance, boolean frozen) {
+            this.balance = balance;
+            this.frozen = frozen;
+        }
+
+        public long getBalance() {
+            return balance;
+        }
+
+        public boolean isFrozen() {
+            return frozen;
+        }
+    }
+
+    @Test
+    public void givenRecordsWhenEvaluatingMustMatchEquivalentMaps() {
+        Workflow ruleEngine = new Workflow(WORKFLOW);
+        List<Order> orders = List.of(
+            new Order(50, new Customer("u1", "KP", true, null), List.of()),
+            new Order(5000, new Customer("u2", "AR", false, "gold"), List.of()),
+            new Order(10, new Customer("u3", "AR", true, null),
+                List.of(new Transaction(600, "USD"), new Transaction(700, "USD"), new Transaction(900, "ARS"))),
+            new Order(10, new Customer("u4", "UY", true, "gold"), List.of(new Transaction(10, "USD"))),
+            new Order(10, new Customer(null, null, true, null), List.of()));
+
+        for (Order order : orders) {
+            WorkflowResult expected = ruleEngine.evaluate(toMap(order));
+            WorkflowResult actual = ruleEngine.evaluate(BeanRow.of(order));
+            Assertions.assertEquals(expected, actual);
+        }
+        Assertions.assertEquals(List.of(new Action("manual_review", Map.of("user", "u2"))),
+            ruleEngine.evaluate(BeanRow.of(orders.get(1))).getActionCalls());
+    }
+
+    @Test
+    public void givenJavaBeanWhenEvaluatingMustReadGettersAndPublicFields() {
+        Workflow ruleEngine = new Workflow("""
+            workflow 'bean'
+                ruleset 'accounts'
+                    'frozen' frozen = true return block
+                    'owner' owner = 'acme' and balance > 100 return review
+                default allow
+            end
+        """);
+
+        Assertions.assertEquals("block", ruleEngine.evaluate(BeanRow.of(new Account(10, true))).getResult());
+        Assertions.assertEquals("review", ruleEngine.evaluate(BeanRow.of(new Account(500, false))).getResult());
+        Assertions.assertEquals("allow", ruleEngine.evaluate(BeanRow.of(new Account(5, false))).getResult());
+        Assertions.assertEquals(Map.of("balance", 500L, "frozen", false, "owner", "acme"),
+            BeanRow.of(new Account(500, false)));
+    }
+
+    @Test
+    public void givenBeanClassWhenResolvingPropertiesMustGenerateLambdaGetters() {
+        BeanType type = BeanType.of(Customer.class);
+
+        Assertions.assertEquals(List.of("id", "country", "verified", "tier"), List.copyOf(type.names()));
+        Assertions.assertTrue(type.getter("country").getClass().isHidden());
+        Assertions.assertEquals(true, type.getter("verified").apply(new Customer("u1", "AR", true, null)));
+        Assertions.assertNull(type.getter("missing"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BeanRow.of("not a bean"));
+    }
+
+    private static Map<String, Object> toMap(Order order) {
+        Map<String, Object> customer = new HashMap<>();
+        putIfPresent(customer, "id", order.customer().id());
+        putIfPresent(customer, "country", order.customer().country());
+        customer.put("verified", order.customer().verified());
+        putIfPresent(customer, "tier", order.customer().tier());
+        return Map.of(
+            "amount", order.amount(),
+            "customer", customer,
+            "transactions", order.transactions().stream()
+                .map(it -> Map.<String, Object>of("amount", it.amount(), "currency", it.currency()))
+                .toList());
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
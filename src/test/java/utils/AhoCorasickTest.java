@@ -0,0 +1,56 @@
+package utils;
+
+import com.gatekeeperx.ruleflow.utils.AhoCorasick;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AhoCorasickTest {
+
+    @Test
+    void testMatchesAnyPattern() {
+        AhoCorasick automaton = AhoCorasick.of(List.of("he", "she", "his", "hers"));
+        assertTrue(automaton.matchesAny("ushers"));
+        assertTrue(automaton.matchesAny("this"));
+        assertFalse(automaton.matchesAny("hit a road"));
+        assertFalse(automaton.matchesAny(""));
+    }
+
+    @Test
+    void testFollowsFailureLinks() {
+        // "abcd" fails after "abc" and must still find "bce"
+        AhoCorasick automaton = AhoCorasick.of(List.of("abcd", "bce"));
+        assertTrue(automaton.matchesAny("xabce"));
+        assertFalse(automaton.matchesAny("abcx"));
+    }
+
+    @Test
+    void testEmptyPatternMatchesEverything() {
+        AhoCorasick automaton = AhoCorasick.of(Arrays.asList("abc", "", null));
+        assertTrue(automaton.matchesAny("zzz"));
+        assertTrue(automaton.matchesAny(""));
+    }
+
+    @Test
+    void testNoPatternsMatchesNothing() {
+        assertFalse(AhoCorasick.of(List.of()).matchesAny("anything"));
+    }
+
+    @Test
+    void testAgreesWithStringContains() {
+        List<String> patterns = List.of("fraud", "test", "temp", "mail", "xx", "a.b");
+        AhoCorasick automaton = AhoCorasick.of(patterns);
+        for (String text : List.of("user@tempmail.com", "x@a.bc", "clean@example.com", "x", "frau", "testx")) {
+            boolean expected = patterns.stream().anyMatch(text::contains);
+            if (expected) {
+                assertTrue(automaton.matchesAny(text), text);
+            } else {
+                assertFalse(automaton.matchesAny(text), text);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package utils;
+
+import com.gatekeeperx.ruleflow.utils.PrefixTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefixTrieTest {
+
+    @Test
+    void testMatchesAnyPrefix() {
+        PrefixTrie trie = PrefixTrie.of(List.of("4111", "5500", "+54911"));
+        assertTrue(trie.matchesPrefixOf("4111111111111111"));
+        assertTrue(trie.matchesPrefixOf("+5491155550000"));
+        assertTrue(trie.matchesPrefixOf("5500"));
+        assertFalse(trie.matchesPrefixOf("411"));
+        assertFalse(trie.matchesPrefixOf("54111"));
+        assertFalse(trie.matchesPrefixOf(""));
+    }
+
+    @Test
+    void testShorterPrefixWinsOverLongerOne() {
+        PrefixTrie trie = PrefixTrie.of(List.of("41111", "41"));
+        assertTrue(trie.matchesPrefixOf("4100"));
+        assertTrue(trie.matchesPrefixOf("41111"));
+    }
+
+    @Test
+    void testEmptyPrefixMatchesEverything() {
+        PrefixTrie trie = PrefixTrie.of(Arrays.asList("abc", "", null));
+        assertTrue(trie.matchesPrefixOf("zzz"));
+        assertTrue(trie.matchesPrefixOf(""));
+    }
+
+    @Test
+    void testNoPrefixesMatchesNothing() {
+        assertFalse(PrefixTrie.of(List.of()).matchesPrefixOf("anything"));
+    }
+}